@@ -5,36 +5,69 @@ import session.*;
 import data.*;
 import ui.ConsoleUI;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
 
 public class Main {
-    private static List<Student> students;
+    private static UserDirectory<Student> students;
     private static List<CompanyRepresentative> companyReps = new ArrayList<>();
-    private static List<CareerCenterStaff> staffList = new ArrayList<>();
+    private static UserDirectory<CareerCenterStaff> staffList;
     
     // Service instances
-    private static final InternshipFilterService filterService = new InternshipFilterServiceImpl();
+    private static final IndexedInternshipFilterService indexedFilterService = new IndexedInternshipFilterService();
+    private static final CachingInternshipFilterService filterService = new CachingInternshipFilterService(indexedFilterService);
     private static final InternshipViewerService internshipViewer = new InternshipViewerService(filterService);
-    private static final InternshipService internshipService = new InternshipService();
+    private static final InternshipService internshipService =
+            new InternshipService(indexedFilterService.getDateIndex(), new CohortEligibilityIndex());
+    private static final InternshipSearchIndex searchIndex = new InternshipSearchIndex();
+    private static final InternshipScheduler scheduler = new InternshipScheduler();
     private static final ConsoleUI consoleUI = new ConsoleUI();
+    private static final SnapshotStore snapshotStore = new SnapshotStore(Paths.get("system_snapshot.bin"));
+    private static final Path journalFile = Paths.get("system_journal.bin");
+    private static long journalGeneration; // of the loaded snapshot; 0 when the CSV files were read
 
     public static void main(String[] args) {
         // Initialize data loaders
         StudentDataLoader studentLoader = new StudentDataLoader(internshipViewer);
         StaffDataLoader staffLoader = new StaffDataLoader(internshipViewer);
         
-        // Load data
+        // Load data; the last snapshot when there is one, otherwise the CSV files
         System.out.println("Loading application data...");
-        students = studentLoader.readFromCSV("student_list.csv");
-        staffList = staffLoader.readFromCSV("staffList.csv");
+        if (!loadSnapshot()) {
+            // The two files are read at the same time and reported one after the other
+            // Records go into the directories as they are read, so neither file is held as a list first
+            UserRepository<Student> studentDirectory = new UserRepository<>();
+            UserRepository<CareerCenterStaff> staffDirectory = new UserRepository<>();
+            CompletableFuture<LoadResult> studentLoad =
+                    CompletableFuture.supplyAsync(() -> studentLoader.load("student_list.csv", studentDirectory::add));
+            LoadResult staffLoad = staffLoader.load("staffList.csv", staffDirectory::add);
+            studentLoad.join().print();
+            staffLoad.print();
+            students = studentDirectory;
+            staffList = staffDirectory;
+        }
+
+        // Changes made since the snapshot (or the CSV files) are played back, and from now on every change is kept
+        try {
+            EventJournal.open(journalFile, journalGeneration, internshipViewer, students, staffList, companyReps);
+        } catch (IOException e) {
+            System.out.println("Could not open event journal, changes will only be kept by snapshots: " + e.getMessage());
+        }
         System.out.println("System initialized successfully!");
         System.out.println("Loaded " + students.size() + " students, " + staffList.size() + " staff members, and " + companyReps.size() + " company representatives.");
 
+        scheduler.start();
+
         // for cleaner shut down of system in abrupt closure
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            saveSnapshot();
+            EventJournal.close();
             System.out.println("Shutting down session manager...");
             SessionManager.shutdown();
         }));
@@ -42,6 +75,7 @@ public class Main {
         System.out.println("\nWelcome to the Internship Placement Management System!");
 
         while (true) {
+            betweenCommands();
             System.out.println("\n=== Main Menu ===");
             System.out.println("1. Student Login");
             System.out.println("2. Company Representative Login / Register");
@@ -78,14 +112,7 @@ public class Main {
     // =================== Student Menu ===================
     private static void studentMenu() {
         String id = consoleUI.getInput("Enter Student ID: ");
-        Student student = null;
-        for (int i = 0; i < students.size(); i++) {
-            Student s = students.get(i);
-            if (s.getUserID().equals(id)) {
-                student = s;
-                break;
-            }
-        }
+        Student student = students.findById(id);
 
         if (student == null) {
             System.out.println("Student not found.");
@@ -106,6 +133,7 @@ public class Main {
         System.out.println("Welcome " + student.getName() + "!");
 
         while (true) {
+            betweenCommands();
             System.out.println("\n=== Student Menu - " + student.getName() + " ===");
             System.out.println("1. View Applied Internships");
             System.out.println("2. View & Apply for Internships");
@@ -164,7 +192,10 @@ public class Main {
             return;
         }
         
-        InternshipOpportunity opp = internshipService.findInternshipByTitle(companyReps, title);
+        List<InternshipOpportunity> titled = internshipService.findInternshipsByTitle(title);
+        // Not an exact title, so the input is treated as keywords
+        InternshipOpportunity opp = titled.isEmpty() ? chooseFromSearch(title, available, currentFilter)
+                                                     : chooseByTitle(title, titled);
         if (opp != null) {
             if (consoleUI.confirmAction("Apply for '" + opp.getTitle() + "' at " + opp.getCompany() + "?")) {
                 student.applyForInternship(opp);
@@ -174,8 +205,47 @@ public class Main {
         }
     }
 
+    // Several companies can use the same title, so the student picks one instead of getting the first
+    private static InternshipOpportunity chooseByTitle(String title, List<InternshipOpportunity> matches) {
+        if (matches.size() == 1) {
+            return matches.get(0);
+        }
+
+        System.out.println("More than one internship is titled '" + title + "':");
+        for (int i = 0; i < matches.size(); i++) {
+            System.out.println((i + 1) + ". " + matches.get(i).getTitle() + " | " + matches.get(i).getCompany());
+        }
+        String company = consoleUI.getInput("Enter the company (or press Enter to go back): ");
+        return company.isEmpty() ? null : internshipService.findInternshipByTitle(company, title);
+    }
+
+    private static InternshipOpportunity chooseFromSearch(String keywords, List<InternshipOpportunity> available,
+                                                          InternshipFilter filter) {
+        List<InternshipOpportunity> matches = searchIndex.search(keywords, available, filter, filterService);
+        if (matches.isEmpty()) {
+            return null;
+        }
+
+        int shown = Math.min(matches.size(), 5);
+        System.out.println("No exact title match. Closest internships for '" + keywords + "':");
+        for (int i = 0; i < shown; i++) {
+            InternshipOpportunity m = matches.get(i);
+            System.out.println((i + 1) + ". " + m.getTitle() + " | " + m.getCompany() + " | Level: " + m.getLevel());
+        }
+        String pick = consoleUI.getInput("Choose an internship (or press Enter to go back): ");
+        try {
+            int index = Integer.parseInt(pick.trim()) - 1;
+            if (index >= 0 && index < shown) {
+                return matches.get(index);
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        return null;
+    }
+
     private static void studentFilterInternships(Student student, UserSession session) {
-        List<InternshipOpportunity> allInternships = internshipService.getAllInternships(companyReps);
+        List<InternshipOpportunity> allInternships = internshipService.getAllInternships();
         
         if (allInternships.isEmpty()) {
             System.out.println("No internships available in the system.");
@@ -191,7 +261,7 @@ public class Main {
 
     private static void studentAcceptOffer(Student student) {
         List<InternshipApplication> offers = student.getAppliedInternships().stream()
-                .filter(a -> "Offered".equalsIgnoreCase(a.getStatus()))
+                .filter(a -> a.getStatusCode() == ApplicationStatus.OFFERED)
                 .toList();
                 
         if (offers.isEmpty()) {
@@ -285,6 +355,7 @@ public class Main {
         System.out.println("Welcome " + rep.getName() + " from " + rep.getCompany() + "!");
 
         while (true) {
+            betweenCommands();
             System.out.println("\n=== Company Representative Menu - " + rep.getName() + " ===");
             System.out.println("1. Create Internship Opportunity");
             System.out.println("2. Edit Internship (before approval)");
@@ -382,10 +453,7 @@ public class Main {
     // =================== Staff Menu ===================
     private static void staffMenu() {
         String id = consoleUI.getInput("Enter Staff ID: ");
-        CareerCenterStaff staff = staffList.stream()
-                .filter(s -> s.getUserID().equals(id))
-                .findFirst()
-                .orElse(null);
+        CareerCenterStaff staff = staffList.findById(id);
 
         if (staff == null) {
             System.out.println("Staff not found.");
@@ -402,8 +470,10 @@ public class Main {
             session = SessionManager.createSession(staff);
         }
         System.out.println("Welcome " + staff.getName() + "!");
+        ApprovalQueues.printBacklog();
 
         while (true) {
+            betweenCommands();
             System.out.println("\n=== Staff Menu - " + staff.getName() + " ===");
             System.out.println("1. Approve Company Representatives");
             System.out.println("2. Approve Internships");
@@ -414,7 +484,8 @@ public class Main {
             System.out.println("7. View Company Rep Statistics");
             System.out.println("8. View Internship Statistics");
             System.out.println("9. Change password");
-            System.out.println("10. Logout");
+            System.out.println("10. Save System Snapshot");
+            System.out.println("11. Logout");
             System.out.print("Choose an option: ");
 
             String choice = consoleUI.getInput("");
@@ -427,10 +498,10 @@ public class Main {
                     staff.approveInternships(companyReps);
                     break;
                 case "3":
-                    staff.viewApprovedInternships(companyReps);
+                    staff.viewApprovedInternships();
                     break;
                 case "4":
-                    staff.processWithdrawals(students);
+                    staff.processWithdrawals(students.getAll());
                     break;
                 case "5":
                     staffViewInternships(staff,session);
@@ -442,12 +513,15 @@ public class Main {
                     staff.viewCompanyRepStats(companyReps);
                     break;
                 case "8":
-                    staff.viewInternshipStats(companyReps);
+                    staff.viewInternshipStats();
                     break;
                 case "9":
                     changePassword(staff);
                     break;
                 case "10":
+                    saveSnapshot();
+                    break;
+                case "11":
                     SessionManager.removeSession(staff.getUserID());
                     System.out.println("Logged out successfully.");
                     return;
@@ -460,7 +534,7 @@ public class Main {
     }
 
     private static void staffFilterInternships(CareerCenterStaff staff, UserSession session) {
-        List<InternshipOpportunity> allInternships = internshipService.getAllInternships(companyReps);
+        List<InternshipOpportunity> allInternships = internshipService.getAllInternships();
     
         if (allInternships.isEmpty()) {
             System.out.println("No internships available in the system.");
@@ -475,7 +549,7 @@ public class Main {
         staff.viewInternshipsWithFilter(allInternships, session.getCurrentFilter());
     }
     private static void staffViewInternships(CareerCenterStaff staff,UserSession session) {
-        List<InternshipOpportunity> allInternships = internshipService.getAllInternships(companyReps);
+        List<InternshipOpportunity> allInternships = internshipService.getAllInternships();
         InternshipFilter filter = new InternshipFilter();
         
         if (allInternships.isEmpty()) {
@@ -488,6 +562,13 @@ public class Main {
     }
 
     // =================== Helper Methods ===================
+    // Application windows open and close here, on the console thread, so menus never see them change; then
+    // this waits until the journal has the last command's changes on disk
+    private static void betweenCommands() {
+        scheduler.poll();
+        EventJournal.commit();
+    }
+
     private static void changePassword(User user) {
         String newPassword = consoleUI.getInput("Enter new password: ");
         if (newPassword.length() < 3) {
@@ -498,21 +579,50 @@ public class Main {
         System.out.println("Password changed successfully!");
     }
 
+    private static boolean loadSnapshot() {
+        if (!snapshotStore.exists()) return false;
+        try {
+            SnapshotStore.Contents contents = snapshotStore.load(internshipViewer);
+            students = contents.getStudents();
+            staffList = contents.getStaff();
+            companyReps = contents.getRepresentatives();
+            journalGeneration = contents.getJournalGeneration();
+            System.out.println("Restored system snapshot from " + snapshotStore.getPath());
+            return true;
+        } catch (IOException e) {
+            System.out.println("Could not read system snapshot, loading CSV files instead: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void saveSnapshot() {
+        try {
+            // The journal starts over once the snapshot holds everything it recorded
+            EventJournal.checkpoint(generation -> snapshotStore.save(students.getAll(), staffList.getAll(), companyReps, generation));
+            System.out.println("System snapshot saved to " + snapshotStore.getPath());
+        } catch (IOException e) {
+            System.out.println("Could not save system snapshot: " + e.getMessage());
+        }
+    }
+
     private static void showSystemStatistics() {
         System.out.println("\n=== System Statistics ===");
         System.out.println("Total Students: " + students.size());
         System.out.println("Total Staff: " + staffList.size());
         System.out.println("Total Company Representatives: " + companyReps.size());
         
-        int totalInternships = internshipService.getAllInternships(companyReps).size();
-        int pendingInternships = internshipService.getPendingInternships(companyReps).size();
-        int approvedInternships = internshipService.getApprovedInternships(companyReps).size();
+        long totalInternships = StatisticsAggregator.countInternships();
+        long pendingInternships = StatisticsAggregator.countInternships(InternshipStatus.PENDING);
+        long approvedInternships = StatisticsAggregator.countInternships(InternshipStatus.APPROVED);
         
         System.out.println("Total Internships: " + totalInternships);
         System.out.println(" - Pending: " + pendingInternships);
         System.out.println(" - Approved: " + approvedInternships);
+        System.out.println("Total Applications: " + StatisticsAggregator.countApplications());
+        ApprovalQueues.printBacklog();
         
         SessionManager.printSessionStats();
+        filterService.printCacheStats();
         consoleUI.waitForEnter();
     }
 }
@@ -0,0 +1,267 @@
+package data;
+
+import interfaces.DataLoader;
+import interfaces.LoadErrorSink;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+/**
+ * This is the common part of the CSV loaders. Large files are cut at record boundaries and the pieces are read
+ * and checked on a pool, a few pieces ahead of where the records are being used; the pieces are handed out in
+ * file order, so the records and the warnings (with their original line numbers) come out exactly as a
+ * one-thread read would give them. Loading is a stream of the file, so only those few pieces are held at once
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public abstract class CsvDataLoader<T> implements DataLoader<T> {
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final String kind;
+    private final String kindPlural;
+    private final ForkJoinPool pool;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    // kind names what is read in the messages, e.g. "student" and "students"; a null pool reads on one thread
+    protected CsvDataLoader(String kind, String kindPlural, ForkJoinPool pool) {
+        this.kind = kind;
+        this.kindPlural = kindPlural;
+        this.pool = pool;
+    }
+
+    // Files no bigger than this are read on the calling thread
+    public int getChunkSize() { return chunkSize; }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    // Records with fewer fields than this are reported and skipped
+    protected int minimumFields() {
+        return 5;
+    }
+
+    // Turns the current record into an item; throws InvalidRecordException when the record cannot be used
+    protected abstract T readRecord(CsvParser csv);
+
+    @Override
+    public List<T> readFromCSV(String filename) {
+        List<T> items = new ArrayList<>();
+        load(filename, items::add).print();
+        return items;
+    }
+
+    // Records come out in file order; a failed piece ends the stream with a CompletionException holding the cause.
+    // Close the stream when stopping early, so pieces still being read are dropped
+    @Override
+    public Stream<T> streamFromCSV(String filename, LoadErrorSink errors) throws IOException {
+        ByteBuffer buffer = CsvParser.map(Paths.get(filename));
+        List<CsvParser.Chunk> chunks = pool == null ? null : CsvParser.split(buffer, chunkSize);
+        if (chunks == null || chunks.size() == 1) {
+            return stream(new Records(filename, new CsvParser(buffer), true, errors));
+        }
+        ChunkedRecords records = new ChunkedRecords(filename, buffer, chunks, errors);
+        return stream(records).onClose(records::cancel);
+    }
+
+    private static <T> Stream<T> stream(Iterator<T> records) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(records,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    // Hands each record to sink as it is read, without printing anything, so several files can be loaded at once;
+    // the result only keeps the counts and the messages
+    public LoadResult load(String filename, Consumer<? super T> sink) {
+        LoadResult result = new LoadResult();
+        result.message("Loading " + kindPlural + " from: " + filename);
+
+        try (Stream<T> records = streamFromCSV(filename, result)) {
+            records.forEachOrdered(item -> {
+                sink.accept(item);
+                result.recordKept();
+            });
+            result.message(capitalize(kind) + " loading completed: " + result.getSuccessCount() +
+                           " successful, " + result.getErrorCount() + " errors.");
+        } catch (IOException e) {
+            result.fail("Error reading " + kind + " file: " + e.getMessage(), e);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof InterruptedException) {
+                result.fail("Loading of " + filename + " was interrupted.", e);
+            } else {
+                result.fail("Error reading " + kind + " file: " + e.getCause().getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    private Piece<T> readChunk(String filename, ByteBuffer buffer, CsvParser.Chunk chunk) {
+        Piece<T> piece = new Piece<>(new ArrayList<>(), new ArrayList<>());
+        boolean header = chunk.start() == buffer.position();
+        Records records = new Records(filename, CsvParser.forChunk(buffer, chunk), header, piece);
+        while (records.hasNext()) {
+            piece.items().add(records.next());
+        }
+        return piece;
+    }
+
+    // The records of one piece of a file and the problems found in it, held until the pieces before it are used
+    private record Piece<T>(List<T> items, List<LoadError> errors) implements LoadErrorSink {
+        @Override
+        public void error(LoadError error) {
+            errors.add(error);
+        }
+    }
+
+    // The records of a file cut into pieces, read on the pool at most window pieces ahead. A piece's warnings
+    // go to the sink just before its records are handed out, so both stay in file order
+    private final class ChunkedRecords implements Iterator<T> {
+        private final String filename;
+        private final ByteBuffer buffer;
+        private final Iterator<CsvParser.Chunk> chunks;
+        private final LoadErrorSink errors;
+        private final int window;
+        private final ArrayDeque<Future<Piece<T>>> reading = new ArrayDeque<>();
+        private Iterator<T> current = Collections.emptyIterator();
+
+        private ChunkedRecords(String filename, ByteBuffer buffer, List<CsvParser.Chunk> chunks, LoadErrorSink errors) {
+            this.filename = filename;
+            this.buffer = buffer;
+            this.chunks = chunks.iterator();
+            this.errors = errors;
+            this.window = Math.max(2, pool.getParallelism() * 2);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                readAhead();
+                Future<Piece<T>> part = reading.poll();
+                if (part == null) return false;
+                Piece<T> piece = take(part);
+                for (LoadError error : piece.errors()) {
+                    errors.error(error);
+                }
+                current = piece.items().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return current.next();
+        }
+
+        private void readAhead() {
+            while (reading.size() < window && chunks.hasNext()) {
+                CsvParser.Chunk chunk = chunks.next();
+                reading.add(pool.submit(() -> readChunk(filename, buffer, chunk)));
+            }
+        }
+
+        private Piece<T> take(Future<Piece<T>> part) {
+            try {
+                return part.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new CompletionException(e);
+            } catch (ExecutionException e) {
+                cancel();
+                throw new CompletionException(e.getCause());
+            }
+        }
+
+        private void cancel() {
+            for (Future<Piece<T>> part : reading) {
+                part.cancel(true);
+            }
+            reading.clear();
+            while (chunks.hasNext()) {
+                chunks.next();
+            }
+        }
+    }
+
+    // The usable records of one parser, in order; the others are reported to the sink and skipped
+    private final class Records implements Iterator<T> {
+        private final String filename;
+        private final CsvParser csv;
+        private final LoadErrorSink errors;
+        private boolean header;
+        private T next;
+
+        private Records(String filename, CsvParser csv, boolean header, LoadErrorSink errors) {
+            this.filename = filename;
+            this.csv = csv;
+            this.header = header;
+            this.errors = errors;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && csv.next()) {
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                next = read();
+            }
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            T item = next;
+            next = null;
+            return item;
+        }
+
+        private T read() {
+            if (csv.isBlank()) {
+                return null;
+            }
+            if (csv.getError() != null) {
+                return report(LoadError.Problem.UNREADABLE, csv.getError());
+            }
+            // A line of only commas has no data at all, however many fields it splits into
+            if (csv.getFieldCount() < minimumFields() || !csv.hasText()) {
+                return report(LoadError.Problem.INSUFFICIENT_DATA, null);
+            }
+
+            try {
+                return readRecord(csv);
+            } catch (InvalidRecordException e) {
+                return report(e.getProblem(), e.getDetail());
+            } catch (NumberFormatException e) {
+                return report(LoadError.Problem.INVALID_NUMBER, e.getMessage());
+            } catch (Exception e) {
+                return report(LoadError.Problem.RECORD_FAILED, e.getMessage());
+            }
+        }
+
+        private T report(LoadError.Problem problem, String detail) {
+            errors.error(new LoadError(filename, csv.getLineNumber(), problem, detail, csv.getLine()));
+            return null;
+        }
+    }
+
+    private static String capitalize(String s) {
+        return s.isEmpty() ? s : Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+}
@@ -0,0 +1,369 @@
+package data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+/**
+ * This is a CSV reader (RFC 4180) that works straight over the bytes of a memory-mapped file. Each call to next()
+ * moves to the next record and only notes where its fields start and end; a field becomes a String only when
+ * getString is called for it, and numbers are read without one. Quoted fields may hold commas, line breaks and
+ * doubled quotes. Unquoted fields have surrounding spaces dropped, quoted ones are kept exactly as written
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class CsvParser {
+    // Where split is within a field
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int AFTER_QUOTED = 3;
+
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int pos;
+    private int nextLineNumber;
+
+    // The current record
+    private int lineNumber;
+    private int recordStart;
+    private int recordEnd;
+    private int fieldCount;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private boolean[] quoted = new boolean[8];
+    private boolean[] escaped = new boolean[8];
+    private String error;
+
+    private byte[] scratch = new byte[64];
+
+    // Reads the bytes from the buffer's position to its limit; firstLineNumber is the line the first record is on
+    public CsvParser(ByteBuffer buffer, int firstLineNumber) {
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+        this.pos = buffer.position();
+        this.nextLineNumber = firstLineNumber;
+        skipByteOrderMark();
+    }
+
+    public CsvParser(ByteBuffer buffer) {
+        this(buffer, 1);
+    }
+
+    // Maps the whole file read-only; the mapping stays usable after the file is closed
+    public static CsvParser open(String filename) throws IOException {
+        return new CsvParser(map(Paths.get(filename)));
+    }
+
+    public static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to map: " + path);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Cuts the buffer into pieces of roughly chunkSize bytes that each end at the end of a record, so every piece
+     * can be read by its own parser. Quotes follow the same rules as next(), so line breaks inside quoted fields
+     * are not mistaken for record ends and a stray quote in the middle of a field does not open one
+     */
+    public static List<Chunk> split(ByteBuffer buffer, int chunkSize) {
+        List<Chunk> chunks = new ArrayList<>();
+        int limit = buffer.limit();
+        int start = buffer.position();
+        int line = 1;
+        int chunkLine = 1;
+        int state = FIELD_START;
+
+        for (int p = start; p < limit; p++) {
+            byte b = buffer.get(p);
+            if (state == QUOTED) {
+                if (b == '"') {
+                    if (p + 1 < limit && buffer.get(p + 1) == '"') {
+                        p++; // a doubled quote stays inside the field
+                    } else {
+                        state = AFTER_QUOTED;
+                    }
+                } else if (b == '\n') {
+                    line++;
+                }
+            } else if (b == '\n') {
+                state = FIELD_START;
+                line++;
+                if (p + 1 - start >= chunkSize) {
+                    chunks.add(new Chunk(start, p + 1, chunkLine));
+                    start = p + 1;
+                    chunkLine = line;
+                }
+            } else if (b == '\r') {
+                state = FIELD_START;
+                if (p + 1 >= limit || buffer.get(p + 1) != '\n') {
+                    line++; // a lone CR ends a record too
+                }
+            } else if (b == ',') {
+                state = FIELD_START;
+            } else if (state == FIELD_START && b == '"') {
+                state = QUOTED;
+            } else if (state == FIELD_START && !isBlank(b)) {
+                state = UNQUOTED;
+            }
+            // Anything else, quotes included, is just text of an unquoted field or after a closing quote
+        }
+        if (start < limit || chunks.isEmpty()) {
+            chunks.add(new Chunk(start, limit, chunkLine));
+        }
+        return chunks;
+    }
+
+    // A parser over one piece of a buffer cut up by split
+    public static CsvParser forChunk(ByteBuffer buffer, Chunk chunk) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(chunk.end()).position(chunk.start());
+        return new CsvParser(slice, chunk.firstLineNumber());
+    }
+
+    // Bytes [start, end) of a buffer, beginning on line firstLineNumber
+    public record Chunk(int start, int end, int firstLineNumber) { }
+
+    // Moves to the next record; false once the input is used up
+    public boolean next() {
+        if (pos >= limit) return false;
+
+        lineNumber = nextLineNumber;
+        recordStart = pos;
+        fieldCount = 0;
+        error = null;
+
+        int p = pos;
+        while (true) {
+            int q = skipBlanks(p);
+            if (q < limit && buffer.get(q) == '"') {
+                p = readQuoted(q + 1);
+            } else {
+                p = readUnquoted(p);
+            }
+
+            if (p >= limit) {
+                recordEnd = limit;
+                pos = limit;
+                return true;
+            }
+            byte b = buffer.get(p);
+            if (b == ',') {
+                p++;
+                continue;
+            }
+            // End of the record: CRLF, LF or a lone CR
+            recordEnd = p;
+            p++;
+            if (b == '\r' && p < limit && buffer.get(p) == '\n') {
+                p++;
+            }
+            nextLineNumber++;
+            pos = p;
+            return true;
+        }
+    }
+
+    // Line the current record starts on, counting from the first line given to the parser
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    // True for an empty line, or one holding nothing but spaces; a line of commas is not blank
+    public boolean isBlank() {
+        return fieldCount <= 1 && !hasText();
+    }
+
+    // False when every field is empty and unquoted, as on a line of nothing but commas and spaces
+    public boolean hasText() {
+        for (int i = 0; i < fieldCount; i++) {
+            if (quoted[i] || ends[i] > starts[i]) return true;
+        }
+        return false;
+    }
+
+    // Why the current record could not be read properly, or null when it was fine
+    public String getError() {
+        return error;
+    }
+
+    public boolean isEmpty(int field) {
+        checkField(field);
+        return ends[field] == starts[field];
+    }
+
+    public String getString(int field) {
+        checkField(field);
+        int start = starts[field];
+        int length = ends[field] - start;
+        if (length == 0) return "";
+
+        byte[] bytes = copy(start, length);
+        if (escaped[field]) {
+            // Doubled quotes inside a quoted field stand for one quote
+            int out = 0;
+            for (int i = 0; i < length; i++) {
+                bytes[out++] = bytes[i];
+                if (bytes[i] == '"' && i + 1 < length && bytes[i + 1] == '"') {
+                    i++;
+                }
+            }
+            length = out;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // Reads a whole number straight from the bytes; throws NumberFormatException like Integer.parseInt
+    public int getInt(int field) {
+        checkField(field);
+        int p = starts[field];
+        int end = ends[field];
+        if (p == end) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+
+        boolean negative = false;
+        byte first = buffer.get(p);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            p++;
+        }
+        if (p == end) {
+            throw new NumberFormatException("For input string: \"" + getString(field) + "\"");
+        }
+        long value = 0;
+        for (; p < end; p++) {
+            int digit = buffer.get(p) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + getString(field) + "\"");
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("For input string: \"" + getString(field) + "\"");
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + getString(field) + "\"");
+        }
+        return (int) value;
+    }
+
+    // The current record as written in the file, for error messages
+    public String getLine() {
+        int length = recordEnd - recordStart;
+        return new String(copy(recordStart, length), 0, length, StandardCharsets.UTF_8);
+    }
+
+    private int readUnquoted(int p) {
+        int start = p;
+        while (p < limit) {
+            byte b = buffer.get(p);
+            if (b == ',' || b == '\n' || b == '\r') break;
+            p++;
+        }
+        int end = p;
+        while (start < end && isBlank(buffer.get(start))) start++;
+        while (end > start && isBlank(buffer.get(end - 1))) end--;
+        addField(start, end, false, false);
+        return p;
+    }
+
+    // p is just past the opening quote; returns the position of the comma or line break after the closing one
+    private int readQuoted(int p) {
+        int start = p;
+        boolean hasEscapes = false;
+        while (true) {
+            if (p >= limit) {
+                error = "unterminated quoted field";
+                addField(start, limit, true, hasEscapes);
+                return limit;
+            }
+            byte b = buffer.get(p);
+            if (b == '"') {
+                if (p + 1 < limit && buffer.get(p + 1) == '"') {
+                    hasEscapes = true;
+                    p += 2;
+                    continue;
+                }
+                break;
+            }
+            if (b == '\n') {
+                nextLineNumber++;
+            }
+            p++;
+        }
+        addField(start, p, true, hasEscapes);
+        p++;
+
+        // Only spaces may come between the closing quote and the next comma or line break
+        while (p < limit) {
+            byte b = buffer.get(p);
+            if (b == ',' || b == '\n' || b == '\r') break;
+            if (!isBlank(b) && error == null) {
+                error = "unexpected text after quoted field";
+            }
+            p++;
+        }
+        return p;
+    }
+
+    private void addField(int start, int end, boolean isQuoted, boolean hasEscapes) {
+        if (fieldCount == starts.length) {
+            int size = fieldCount * 2;
+            starts = Arrays.copyOf(starts, size);
+            ends = Arrays.copyOf(ends, size);
+            quoted = Arrays.copyOf(quoted, size);
+            escaped = Arrays.copyOf(escaped, size);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        quoted[fieldCount] = isQuoted;
+        escaped[fieldCount] = hasEscapes;
+        fieldCount++;
+    }
+
+    private byte[] copy(int start, int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return scratch;
+    }
+
+    private int skipBlanks(int p) {
+        while (p < limit && isBlank(buffer.get(p))) p++;
+        return p;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private void skipByteOrderMark() {
+        if (limit - pos >= 3 && buffer.get(pos) == (byte) 0xEF && buffer.get(pos + 1) == (byte) 0xBB &&
+            buffer.get(pos + 2) == (byte) 0xBF) {
+            pos += 3;
+        }
+    }
+
+    private void checkField(int field) {
+        if (field < 0 || field >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + field + " of a record with " + fieldCount + " field(s)");
+        }
+    }
+}
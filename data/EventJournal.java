@@ -0,0 +1,727 @@
+package data;
+
+import interfaces.ApplicationChangeListener;
+import interfaces.InternshipChangeListener;
+import interfaces.UserChangeListener;
+import interfaces.UserDirectory;
+import models.ApplicationStatus;
+import models.CareerCenterStaff;
+import models.CompanyRepresentative;
+import models.InternshipApplication;
+import models.InternshipOpportunity;
+import models.InternshipStatus;
+import models.Student;
+import models.User;
+import services.ApplicationChangeNotifier;
+import services.ApprovalQueues;
+import services.InternshipCatalog;
+import services.InternshipChangeNotifier;
+import services.InternshipViewerService;
+import services.UserChangeNotifier;
+import services.WithdrawalQueue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+/**
+ * This is a write-ahead journal of every change to the system's data: registrations, approvals, internships,
+ * applications and password hashes, as the change notifiers pass them on. Each change is queued as a small binary
+ * event and a background writer flushes whatever has built up and syncs it to disk in one go, so changes made
+ * at the same time share one disk sync. Nothing waits for the disk while making a change; commit() waits until
+ * the calling thread's events are on disk, and the console calls it between commands. When the system starts,
+ * the events written since the last snapshot are played back on top of it. Saving a snapshot starts a new
+ * generation of the journal
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class EventJournal {
+    private static final int MAGIC = 0x49504a4c; // "IPJL"
+    private static final int VERSION = 1; // a journal of any other version is moved aside
+    private static final int HEADER_SIZE = 16;
+
+    private static final byte REP_REGISTERED = 1;
+    private static final byte REP_APPROVAL = 2;
+    private static final byte PASSWORD_CHANGED = 3;
+    private static final byte INTERNSHIP_CREATED = 4;
+    private static final byte INTERNSHIP_UPDATED = 5;
+    private static final byte INTERNSHIP_REMOVED = 6;
+    private static final byte APPLICATION_CREATED = 7;
+    private static final byte APPLICATION_STATUS = 8;
+    private static final byte APPLICATION_REMOVED = 9;
+
+    private static final Object lock = new Object();
+    private static FileChannel channel;
+    private static long generation;
+    private static boolean tracking; // internships are given keys, which starts before playback
+    private static volatile boolean recording;
+    private static Thread writer;
+
+    // Group commit: events waiting to be written, and how far the file is known to be synced
+    private static ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private static long appendedSeq;
+    private static long durableSeq;
+    private static IOException writeFailure;
+    private static final ThreadLocal<Long> lastQueued = new ThreadLocal<>();
+
+    // Internships are named by their representative and a number given out in creation order, which comes out
+    // the same when the events are played back
+    private static final Map<Integer, String> keyById = new HashMap<>();
+    private static final Map<String, InternshipOpportunity> byKey = new HashMap<>();
+    private static final Map<String, Integer> nextSerial = new HashMap<>();
+    private static final Map<Integer, InternshipState> lastState = new HashMap<>();
+    private static final Map<String, CompanyRepresentative> repsById = new HashMap<>();
+
+    // What playback adds to or looks up in
+    private static InternshipViewerService viewer;
+    private static UserDirectory<Student> students;
+    private static UserDirectory<CareerCenterStaff> staff;
+    private static List<CompanyRepresentative> reps;
+
+    static {
+        InternshipChangeNotifier.addListener(new InternshipChangeListener() {
+            @Override
+            public void internshipAdded(InternshipOpportunity opp) {
+                synchronized (lock) {
+                    if (!tracking || keyById.containsKey(opp.getId())) return;
+                    CompanyRepresentative rep = InternshipCatalog.getRepresentative(opp);
+                    if (rep == null) return;
+                    assignKey(rep, opp);
+                }
+                if (recording) {
+                    append(INTERNSHIP_CREATED, out -> {
+                        writeString(out, InternshipCatalog.getRepresentative(opp).getUserID());
+                        writeDetails(out, opp);
+                    });
+                }
+            }
+
+            @Override
+            public void internshipChanged(InternshipOpportunity opp) {
+                String key;
+                synchronized (lock) {
+                    key = keyById.get(opp.getId());
+                    if (key == null) return;
+                    // Only changes to what is kept count; the scheduler's open flag is worked out again anyway
+                    InternshipState state = InternshipState.of(opp);
+                    if (state.equals(lastState.put(opp.getId(), state))) return;
+                }
+                if (recording) {
+                    append(INTERNSHIP_UPDATED, out -> {
+                        writeString(out, key);
+                        writeDetails(out, opp);
+                        writeString(out, opp.getStatusCode().getLabel());
+                        out.writeBoolean(opp.isVisible());
+                    });
+                }
+            }
+
+            @Override
+            public void internshipRemoved(InternshipOpportunity opp) {
+                String key;
+                synchronized (lock) {
+                    key = keyById.remove(opp.getId());
+                    if (key == null) return;
+                    byKey.remove(key);
+                    lastState.remove(opp.getId());
+                }
+                if (recording) {
+                    append(INTERNSHIP_REMOVED, out -> writeString(out, key));
+                }
+            }
+        });
+        UserChangeNotifier.addListener(new UserChangeListener() {
+            @Override
+            public void representativeRegistered(CompanyRepresentative rep) {
+                EventJournal.representativeRegistered(rep);
+            }
+
+            @Override
+            public void representativeApprovalChanged(CompanyRepresentative rep) {
+                EventJournal.representativeApprovalChanged(rep);
+            }
+
+            @Override
+            public void passwordChanged(User user) {
+                EventJournal.passwordChanged(user);
+            }
+        });
+        ApplicationChangeNotifier.addListener(new ApplicationChangeListener() {
+            @Override
+            public void applicationAdded(InternshipApplication app) {
+                applicationCreated(app);
+            }
+
+            @Override
+            public void applicationStatusChanged(InternshipApplication app, ApplicationStatus from,
+                                                 ApplicationStatus to) {
+                EventJournal.applicationStatusChanged(app, to);
+            }
+
+            @Override
+            public void applicationRemoved(InternshipApplication app) {
+                EventJournal.applicationRemoved(app);
+            }
+        });
+    }
+
+    /**
+     * Opens the journal after the data has been loaded, generation being the one the loaded snapshot was saved
+     * with (0 when the CSV files were read). Events of that generation are played back onto the data first;
+     * from then on every change is recorded. reps is the live list new representatives are added to, and
+     * internshipViewer is what they are given
+     */
+    public static void open(Path file, long loadedGeneration, InternshipViewerService internshipViewer,
+                            UserDirectory<Student> studentDirectory, UserDirectory<CareerCenterStaff> staffDirectory,
+                            List<CompanyRepresentative> repList) throws IOException {
+        synchronized (lock) {
+            if (tracking) return;
+            generation = loadedGeneration;
+            viewer = internshipViewer;
+            students = studentDirectory;
+            staff = staffDirectory;
+            reps = repList;
+            assignKeys();
+            tracking = true;
+
+            long end = HEADER_SIZE;
+            if (Files.exists(file)) {
+                end = replayOrSetAside(file);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                       StandardOpenOption.WRITE);
+            if (end == HEADER_SIZE) {
+                channel.truncate(0);
+                channel.write(header(generation), 0);
+            } else {
+                channel.truncate(end); // drop a half-written last event
+            }
+            channel.position(end);
+            channel.force(true);
+
+            recording = true;
+            writer = new Thread(EventJournal::writeLoop, "event-journal");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    public static long getGeneration() {
+        synchronized (lock) {
+            return generation;
+        }
+    }
+
+    public static boolean isOpen() {
+        return recording;
+    }
+
+    // Saves a snapshot with the next generation number and then starts the journal afresh
+    public static void checkpoint(Checkpoint save) throws IOException {
+        synchronized (lock) {
+            if (channel == null) {
+                save.save(generation);
+                return;
+            }
+            awaitWriter();
+            long next = generation + 1;
+            save.save(next);
+            assignKeys(); // numbered the way the next start will number them from this snapshot
+            channel.truncate(0);
+            channel.write(header(next), 0);
+            channel.position(HEADER_SIZE);
+            channel.force(true);
+            generation = next;
+        }
+    }
+
+    public static void close() {
+        Thread stopping;
+        synchronized (lock) {
+            if (channel == null) return;
+            try {
+                awaitWriter();
+            } catch (IOException e) {
+                System.out.println("Event journal could not be flushed: " + e.getMessage());
+            }
+            recording = false;
+            stopping = writer;
+            writer = null;
+            lock.notifyAll();
+        }
+        try {
+            stopping.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.out.println("Event journal could not be closed: " + e.getMessage());
+            }
+            channel = null;
+            tracking = false;
+            keyById.clear();
+            byKey.clear();
+            nextSerial.clear();
+            lastState.clear();
+            repsById.clear();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Checkpoint {
+        void save(long generation) throws IOException;
+    }
+
+    // Waits until every change this thread has made is on disk
+    public static void commit() {
+        Long seq = lastQueued.get();
+        if (seq != null) {
+            awaitDurable(seq);
+        }
+    }
+
+    // ===== Recording, as the notifiers pass changes on =====
+    private static void representativeRegistered(CompanyRepresentative rep) {
+        if (!recording) return;
+        synchronized (lock) {
+            repsById.put(rep.getUserID(), rep);
+        }
+        append(REP_REGISTERED, out -> {
+            writeString(out, rep.getUserID());
+            writeString(out, rep.getName());
+            writeString(out, rep.getCompany());
+            writeString(out, rep.getDepartment());
+            writeString(out, rep.getPosition());
+        });
+    }
+
+    private static void representativeApprovalChanged(CompanyRepresentative rep) {
+        if (!recording) return;
+        append(REP_APPROVAL, out -> {
+            writeString(out, rep.getUserID());
+            out.writeBoolean(rep.isApproved());
+        });
+    }
+
+    private static void passwordChanged(User user) {
+        if (!recording) return;
+        append(PASSWORD_CHANGED, out -> {
+            out.writeByte(user instanceof Student ? 0 : user instanceof CareerCenterStaff ? 1 : 2);
+            writeString(out, user.getUserID());
+            writeString(out, user.getPasswordHash()); // never the password itself
+        });
+    }
+
+    private static void applicationCreated(InternshipApplication app) {
+        if (!recording) return;
+        String key = keyOf(app.getInternship());
+        if (key == null) return;
+        append(APPLICATION_CREATED, out -> {
+            writeString(out, app.getStudent().getUserID());
+            writeString(out, key);
+        });
+    }
+
+    private static void applicationStatusChanged(InternshipApplication app, ApplicationStatus status) {
+        if (!recording) return;
+        String key = keyOf(app.getInternship());
+        if (key == null) return;
+        append(APPLICATION_STATUS, out -> {
+            writeString(out, app.getStudent().getUserID());
+            writeString(out, key);
+            writeString(out, status.getLabel());
+        });
+    }
+
+    private static void applicationRemoved(InternshipApplication app) {
+        if (!recording) return;
+        String key = keyOf(app.getInternship());
+        if (key == null) return;
+        append(APPLICATION_REMOVED, out -> {
+            writeString(out, app.getStudent().getUserID());
+            writeString(out, key);
+        });
+    }
+
+    // ===== Writing =====
+    @FunctionalInterface
+    private interface Payload {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    // Queues the event for the writer and returns straight away; commit() waits for it
+    private static void append(byte type, Payload payload) {
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(body);
+            out.writeByte(type);
+            out.writeLong(System.currentTimeMillis());
+            payload.write(out);
+            out.flush();
+            byte[] bytes = body.toByteArray();
+
+            synchronized (lock) {
+                if (channel == null) return;
+                frame(pending, bytes);
+                lastQueued.set(++appendedSeq);
+                lock.notifyAll();
+            }
+        } catch (IOException e) {
+            System.out.println("Could not record change in event journal: " + e.getMessage());
+        }
+    }
+
+    // Record: length, CRC of what follows, type, time, payload
+    private static void frame(ByteArrayOutputStream to, byte[] bytes) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        DataOutputStream framed = new DataOutputStream(to);
+        framed.writeInt(bytes.length);
+        framed.writeInt((int) crc.getValue());
+        framed.write(bytes);
+    }
+
+    private static void awaitDurable(long seq) {
+        synchronized (lock) {
+            while (durableSeq < seq && writer != null && writeFailure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (writeFailure != null && durableSeq < seq) {
+                System.out.println("Change may not have been saved to the event journal: " + writeFailure.getMessage());
+            }
+        }
+    }
+
+    // Called with the lock held; waits until everything recorded so far is on disk
+    private static void awaitWriter() throws IOException {
+        while (durableSeq < appendedSeq && writer != null && writeFailure == null) {
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while flushing the event journal");
+            }
+        }
+        if (writeFailure != null) {
+            throw writeFailure;
+        }
+    }
+
+    // Takes everything that has piled up since the last pass, writes it and syncs once
+    private static void writeLoop() {
+        while (true) {
+            byte[] batch;
+            long batchSeq;
+            FileChannel out;
+            synchronized (lock) {
+                while (pending.size() == 0 && writer == Thread.currentThread()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.size() == 0) return; // closed
+                batch = pending.toByteArray();
+                pending.reset();
+                batchSeq = appendedSeq;
+                out = channel;
+            }
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                out.force(false);
+                synchronized (lock) {
+                    durableSeq = batchSeq;
+                    lock.notifyAll();
+                }
+            } catch (IOException e) {
+                synchronized (lock) {
+                    writeFailure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    private static ByteBuffer header(long gen) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(gen).flip();
+        return header;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) {
+            out.writeUTF(s);
+        }
+    }
+
+    private static void writeDetails(DataOutputStream out, InternshipOpportunity opp) throws IOException {
+        writeString(out, opp.getTitle());
+        writeString(out, opp.getDescription());
+        writeString(out, opp.getLevel());
+        writeString(out, opp.getPreferredMajor());
+        out.writeLong(opp.getOpenDate().toEpochDay());
+        out.writeLong(opp.getCloseDate().toEpochDay());
+        out.writeInt(opp.getSlots());
+    }
+
+    private static void assignKeys() {
+        keyById.clear();
+        byKey.clear();
+        nextSerial.clear();
+        lastState.clear();
+        repsById.clear();
+        for (CompanyRepresentative rep : reps) {
+            repsById.put(rep.getUserID(), rep);
+            for (InternshipOpportunity opp : rep.getInternships()) {
+                assignKey(rep, opp);
+            }
+        }
+    }
+
+    private static void assignKey(CompanyRepresentative rep, InternshipOpportunity opp) {
+        int serial = nextSerial.merge(rep.getUserID(), 1, Integer::sum) - 1;
+        String key = rep.getUserID() + '#' + serial;
+        keyById.put(opp.getId(), key);
+        byKey.put(key, opp);
+        lastState.put(opp.getId(), InternshipState.of(opp));
+    }
+
+    private static String keyOf(InternshipOpportunity opp) {
+        synchronized (lock) {
+            return keyById.get(opp.getId());
+        }
+    }
+
+    // ===== Playback =====
+    // Plays back a journal of the loaded generation and returns where its last whole event ends; any other
+    // journal is moved aside, since its events do not belong on top of this data. The file is read into memory
+    // rather than mapped, so it can be cut short or replaced afterwards
+    private static long replayOrSetAside(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            setAside(file, "it is not a journal file");
+            return HEADER_SIZE;
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            setAside(file, "it was written by another version");
+            return HEADER_SIZE;
+        }
+        long journalGeneration = buffer.getLong();
+        if (journalGeneration < generation) {
+            return HEADER_SIZE; // already part of the snapshot
+        }
+        if (journalGeneration > generation) {
+            setAside(file, "it belongs to a newer snapshot that could not be loaded");
+            return HEADER_SIZE;
+        }
+
+        int replayed = 0;
+        int failed = 0;
+        long end = buffer.position();
+        while (buffer.remaining() >= 8) {
+            int length = buffer.getInt();
+            int crc = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) break;
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            CRC32 check = new CRC32();
+            check.update(bytes);
+            if ((int) check.getValue() != crc) break;
+
+            try {
+                apply(new DataInputStream(new ByteArrayInputStream(bytes)));
+                replayed++;
+            } catch (RuntimeException e) {
+                failed++;
+                System.out.println("Skipped journal event that could not be played back: " + e.getMessage());
+            }
+            end = buffer.position();
+        }
+        if (replayed + failed > 0) {
+            System.out.println("Replayed " + replayed + " change(s) from the event journal" +
+                               (failed > 0 ? " (" + failed + " skipped)." : "."));
+        }
+        return end;
+    }
+
+    private static void setAside(Path file, String reason) throws IOException {
+        Path aside = file.resolveSibling(file.getFileName() + ".old");
+        Files.move(file, aside, StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("Event journal moved to " + aside + " because " + reason + ".");
+    }
+
+    private static void apply(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        Instant at = Instant.ofEpochMilli(in.readLong());
+        switch (type) {
+            case REP_REGISTERED: {
+                CompanyRepresentative rep = new CompanyRepresentative(readString(in), readString(in),
+                        readString(in), readString(in), readString(in), viewer);
+                repsById.put(rep.getUserID(), rep);
+                reps.add(rep);
+                ApprovalQueues.representatives().restore(rep, at);
+                break;
+            }
+            case REP_APPROVAL:
+                rep(readString(in)).setApproved(in.readBoolean());
+                break;
+            case PASSWORD_CHANGED: {
+                int kind = in.readByte();
+                user(kind, readString(in)).setPasswordHash(readString(in));
+                break;
+            }
+            case INTERNSHIP_CREATED: {
+                CompanyRepresentative rep = rep(readString(in));
+                InternshipOpportunity opp = new InternshipOpportunity(readString(in), readString(in), readString(in),
+                        readString(in), LocalDate.ofEpochDay(in.readLong()), LocalDate.ofEpochDay(in.readLong()),
+                        in.readInt(), rep.getCompany());
+                rep.getInternships().add(opp);
+                InternshipCatalog.add(rep, opp);
+                ApprovalQueues.internships().restore(opp, at);
+                break;
+            }
+            case INTERNSHIP_UPDATED: {
+                InternshipOpportunity opp = internship(readString(in));
+                opp.setDetails(readString(in), readString(in), readString(in), readString(in),
+                               LocalDate.ofEpochDay(in.readLong()), LocalDate.ofEpochDay(in.readLong()), in.readInt());
+                opp.setStatus(found(InternshipStatus.fromLabel(readString(in)), "internship status"));
+                opp.setVisible(in.readBoolean());
+                break;
+            }
+            case INTERNSHIP_REMOVED: {
+                InternshipOpportunity opp = internship(readString(in));
+                CompanyRepresentative rep = InternshipCatalog.getRepresentative(opp);
+                if (rep != null) {
+                    rep.getInternships().remove(opp);
+                }
+                InternshipCatalog.remove(opp);
+                break;
+            }
+            case APPLICATION_CREATED: {
+                Student student = student(readString(in));
+                InternshipOpportunity opp = internship(readString(in));
+                InternshipApplication app = new InternshipApplication(student, opp);
+                student.getAppliedInternships().add(app);
+                opp.addApplication(app);
+                break;
+            }
+            case APPLICATION_STATUS: {
+                InternshipApplication app = application(student(readString(in)), internship(readString(in)));
+                ApplicationStatus status = found(ApplicationStatus.fromLabel(readString(in)), "application status");
+                if (app.getStatusCode() == ApplicationStatus.WITHDRAWAL_REQUESTED) {
+                    WithdrawalQueue.remove(app);
+                }
+                app.setStatus(status);
+                if (status == ApplicationStatus.WITHDRAWAL_REQUESTED) {
+                    WithdrawalQueue.push(app);
+                } else if (status == ApplicationStatus.ACCEPTED) {
+                    app.getStudent().setAcceptedInternship(app);
+                }
+                break;
+            }
+            case APPLICATION_REMOVED: {
+                Student student = student(readString(in));
+                InternshipApplication app = application(student, internship(readString(in)));
+                student.getAppliedInternships().remove(app);
+                if (student.getAcceptedInternship() == app) {
+                    student.setAcceptedInternship(null);
+                }
+                break;
+            }
+            default:
+                throw new IllegalStateException("unknown event type " + type);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static CompanyRepresentative rep(String id) {
+        return found(repsById.get(id), "representative " + id);
+    }
+
+    private static InternshipOpportunity internship(String key) {
+        return found(byKey.get(key), "internship " + key);
+    }
+
+    private static Student student(String id) {
+        return found(students.findById(id), "student " + id);
+    }
+
+    private static User user(int kind, String id) {
+        if (kind == 0) return student(id);
+        if (kind == 2) return rep(id);
+        return found(staff.findById(id), "staff " + id);
+    }
+
+    // The student's latest application to the internship; earlier ones may have been withdrawn and removed
+    private static InternshipApplication application(Student student, InternshipOpportunity opp) {
+        List<InternshipApplication> apps = opp.getApplications();
+        for (int i = apps.size() - 1; i >= 0; i--) {
+            if (apps.get(i).getStudent() == student) return apps.get(i);
+        }
+        return found(null, "application of " + student.getUserID() + " to " + opp.getTitle());
+    }
+
+    private static <T> T found(T value, String what) {
+        if (value == null) {
+            throw new IllegalStateException(what + " not found");
+        }
+        return value;
+    }
+
+    // The parts of an internship the journal keeps; a change to anything else is not recorded
+    private static final class InternshipState {
+        private final Object[] values;
+
+        private InternshipState(Object... values) {
+            this.values = values;
+        }
+
+        private static InternshipState of(InternshipOpportunity opp) {
+            return new InternshipState(opp.getTitle(), opp.getDescription(), opp.getLevel(), opp.getPreferredMajor(),
+                                       opp.getOpenDate(), opp.getCloseDate(), opp.getSlots(),
+                                       opp.getStatusCode(), opp.isVisible());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof InternshipState && Arrays.equals(values, ((InternshipState) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(values);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package data;
+/**
+ * This is thrown by a loader when a record holds data it cannot accept; the record is then skipped and reported
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class InvalidRecordException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final LoadError.Problem problem;
+    private final String detail;
+
+    public InvalidRecordException(LoadError.Problem problem, String detail) {
+        super(detail);
+        this.problem = problem;
+        this.detail = detail;
+    }
+
+    public LoadError.Problem getProblem() { return problem; }
+    public String getDetail() { return detail; }
+}
@@ -0,0 +1,36 @@
+package data;
+/**
+ * This is one record a data loader could not use: which file and line it was on, what was wrong with it, and
+ * the record itself as written
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public record LoadError(String filename, int lineNumber, Problem problem, String detail, String line) {
+
+    public enum Problem {
+        UNREADABLE,         // broken quoting
+        INSUFFICIENT_DATA,  // too few fields
+        EMPTY_FIELDS,       // a field that must be filled in is empty
+        INVALID_VALUE,      // a field holds a value that is not allowed, e.g. year 9
+        INVALID_NUMBER,     // a number field does not hold a number
+        RECORD_FAILED       // anything else that went wrong turning the record into an object
+    }
+
+    // The message the loaders have always printed for this problem
+    public String getMessage() {
+        switch (problem) {
+            case UNREADABLE:
+                return "Warning: Line " + lineNumber + " could not be read (" + detail + "): " + line;
+            case INSUFFICIENT_DATA:
+                return "Warning: Line " + lineNumber + " has insufficient data: " + line;
+            case EMPTY_FIELDS:
+                return "Warning: Line " + lineNumber + " has empty fields: " + line;
+            case INVALID_VALUE:
+                return "Warning: Line " + lineNumber + " has " + detail;
+            case INVALID_NUMBER:
+                return "Error: Line " + lineNumber + " has invalid number format: " + line;
+            default:
+                return "Error processing line " + lineNumber + ": " + detail;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package data;
+
+import interfaces.LoadErrorSink;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+/**
+ * This is how loading one file went: how many records were kept, what was wrong with the others, and the
+ * messages the loader would have printed, held back so that files loaded at the same time can be reported one
+ * after another in a fixed order. The records themselves go straight to whoever keeps them
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class LoadResult implements LoadErrorSink {
+    private final List<String> messages = new ArrayList<>();
+    private final List<LoadError> errors = new ArrayList<>();
+    private int successCount;
+    private int errorCount;
+    private Exception failure;
+
+    public List<String> getMessages() { return Collections.unmodifiableList(messages); }
+    public int getSuccessCount() { return successCount; }
+    public int getErrorCount() { return errorCount; }
+    public List<LoadError> getErrors() { return Collections.unmodifiableList(errors); }
+    public Exception getFailure() { return failure; }
+
+    void recordKept() {
+        successCount++;
+    }
+
+    void message(String message) {
+        messages.add(message);
+    }
+
+    @Override
+    public void error(LoadError error) {
+        errors.add(error);
+        messages.add(error.getMessage());
+        errorCount++;
+    }
+
+    void fail(String message, Exception e) {
+        messages.add(message);
+        failure = e;
+    }
+
+    // Prints the messages in file order
+    public void print() {
+        for (String message : messages) {
+            System.out.println(message);
+        }
+        if (failure != null) {
+            failure.printStackTrace();
+        }
+    }
+}
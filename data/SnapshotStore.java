@@ -0,0 +1,627 @@
+package data;
+
+import interfaces.UserDirectory;
+import models.ApplicationStatus;
+import models.CareerCenterStaff;
+import models.CompanyRepresentative;
+import models.InternshipApplication;
+import models.InternshipOpportunity;
+import models.InternshipStatus;
+import models.Student;
+import models.User;
+import services.ApprovalQueue;
+import services.ApprovalQueues;
+import services.InternshipCatalog;
+import services.InternshipViewerService;
+import services.WithdrawalQueue;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+/**
+ * This is a binary copy of everything the system holds: students, staff, company representatives, internships,
+ * applications and the staff queues, so a restart can carry on where the last run stopped without reading the
+ * CSV files again. Every string is stored once in a dictionary and objects point at each other by number.
+ * Passwords are only kept as the salted hashes the users hold.
+ * Records have a fixed size, so students and staff are only built when they are first looked at, and a table of
+ * their IDs in sorted order finds one at login without building the others. The file is read into memory rather
+ * than mapped, so the next save can always replace it
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class SnapshotStore {
+    private static final int MAGIC = 0x49504d53; // "IPMS"
+    // Any other version is refused, and the CSV files are read instead
+    public static final int VERSION = 1;
+
+    // Ints per record in each section
+    private static final int STUDENT_FIELDS = 6;
+    private static final int STAFF_FIELDS = 4;
+
+    private final Path path;
+
+    public SnapshotStore(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() { return path; }
+
+    public boolean exists() {
+        return Files.isRegularFile(path);
+    }
+
+    // ===== Saving =====
+    /**
+     * Writes everything to a new file and then moves it over the old one, so a crash while saving leaves the
+     * previous snapshot as it was
+     */
+    public void save(List<Student> students, List<CareerCenterStaff> staff,
+                     List<CompanyRepresentative> reps) throws IOException {
+        save(students, staff, reps, 0);
+    }
+
+    // journalGeneration tells the event journal which of its events are already part of this snapshot
+    public synchronized void save(List<Student> students, List<CareerCenterStaff> staff,
+                                  List<CompanyRepresentative> reps, long journalGeneration) throws IOException {
+        Strings strings = new Strings();
+        Map<Object, Integer> index = new IdentityHashMap<>();
+        List<InternshipOpportunity> internships = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        List<InternshipApplication> applications = new ArrayList<>();
+
+        for (int i = 0; i < students.size(); i++) {
+            index.put(students.get(i), i);
+        }
+        for (int i = 0; i < reps.size(); i++) {
+            index.put(reps.get(i), i);
+            for (InternshipOpportunity opp : reps.get(i).getInternships()) {
+                index.put(opp, internships.size());
+                internships.add(opp);
+                owners.add(i);
+            }
+        }
+        for (InternshipOpportunity opp : internships) {
+            for (InternshipApplication app : opp.getApplications()) {
+                if (index.containsKey(app.getStudent())) {
+                    index.put(app, applications.size());
+                    applications.add(app);
+                }
+            }
+        }
+
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(records);
+
+        out.writeInt(students.size());
+        for (Student s : students) {
+            out.writeInt(strings.id(s.getUserID()));
+            out.writeInt(strings.id(s.getName()));
+            out.writeInt(strings.id(s.getPasswordHash()));
+            out.writeInt(strings.id(s.getMajor()));
+            out.writeInt(strings.id(s.getEmail()));
+            out.writeInt(s.getYear());
+        }
+
+        out.writeInt(staff.size());
+        for (CareerCenterStaff s : staff) {
+            out.writeInt(strings.id(s.getUserID()));
+            out.writeInt(strings.id(s.getName()));
+            out.writeInt(strings.id(s.getPasswordHash()));
+            out.writeInt(strings.id(s.getDepartment()));
+        }
+        writeIdOrder(out, students);
+        writeIdOrder(out, staff);
+
+        out.writeInt(reps.size());
+        for (CompanyRepresentative r : reps) {
+            out.writeInt(strings.id(r.getUserID()));
+            out.writeInt(strings.id(r.getName()));
+            out.writeInt(strings.id(r.getPasswordHash()));
+            out.writeInt(strings.id(r.getCompany()));
+            out.writeInt(strings.id(r.getDepartment()));
+            out.writeInt(strings.id(r.getPosition()));
+            out.writeInt(r.isApproved() ? 1 : 0);
+        }
+
+        out.writeInt(internships.size());
+        for (int i = 0; i < internships.size(); i++) {
+            InternshipOpportunity opp = internships.get(i);
+            out.writeInt(owners.get(i));
+            out.writeInt(strings.id(opp.getTitle()));
+            out.writeInt(strings.id(opp.getDescription()));
+            out.writeInt(strings.id(opp.getLevel()));
+            out.writeInt(strings.id(opp.getPreferredMajor()));
+            out.writeInt((int) opp.getOpenDate().toEpochDay());
+            out.writeInt((int) opp.getCloseDate().toEpochDay());
+            out.writeInt(opp.getSlots());
+            out.writeInt(strings.id(opp.getCompany()));
+            out.writeInt(opp.isVisible() ? 1 : 0);
+            out.writeInt(strings.id(opp.getStatusCode().getLabel()));
+        }
+
+        out.writeInt(applications.size());
+        for (InternshipApplication app : applications) {
+            ApplicationStatus before = app.getStatusBeforeWithdrawal();
+            out.writeInt(index.get(app.getStudent()));
+            out.writeInt(index.get(app.getInternship()));
+            out.writeInt(strings.id(app.getStatusCode().getLabel()));
+            out.writeInt(strings.id(before == null ? null : before.getLabel()));
+            out.writeInt(app.getStudent().getAcceptedInternship() == app ? 1 : 0);
+            // Withdrawn applications may have been taken off the student's list but still count for the internship
+            out.writeInt(app.getStudent().getAppliedInternships().contains(app) ? 1 : 0);
+        }
+
+        // Queues, oldest first
+        List<InternshipApplication> withdrawals = WithdrawalQueue.peekOldest(Integer.MAX_VALUE);
+        List<Integer> waiting = new ArrayList<>();
+        for (InternshipApplication app : withdrawals) {
+            if (index.containsKey(app)) waiting.add(index.get(app));
+        }
+        out.writeInt(waiting.size());
+        for (int i : waiting) {
+            out.writeInt(i);
+        }
+        writeQueue(out, ApprovalQueues.representatives(), index);
+        writeQueue(out, ApprovalQueues.internships(), index);
+        out.flush();
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream(records.size() + strings.bytes.size() + 64);
+        DataOutputStream header = new DataOutputStream(file);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        header.writeLong(journalGeneration);
+        strings.writeTo(header);
+        records.writeTo(header);
+        header.flush();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temp, file.toByteArray());
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Positions of the users sorted by ID; equal IDs keep their order, so a lookup finds the first, as a scan would
+    private static void writeIdOrder(DataOutputStream out, List<? extends User> users) throws IOException {
+        Integer[] order = new Integer[users.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> users.get(i).getUserID(),
+                                                Comparator.nullsFirst(Comparator.naturalOrder())));
+        out.writeInt(order.length);
+        for (int i : order) {
+            out.writeInt(i);
+        }
+    }
+
+    private static <T> void writeQueue(DataOutputStream out, ApprovalQueue<T> queue,
+                                       Map<Object, Integer> index) throws IOException {
+        List<T> pending = queue.getPending();
+        List<long[]> entries = new ArrayList<>();
+        for (T item : pending) {
+            Integer i = index.get(item);
+            Instant at = queue.getSubmittedAt(item);
+            if (i != null && at != null) {
+                entries.add(new long[] { i, at.toEpochMilli() });
+            }
+        }
+        out.writeInt(entries.size());
+        for (long[] e : entries) {
+            out.writeInt((int) e[0]);
+            out.writeLong(e[1]);
+        }
+    }
+
+    // ===== Loading =====
+    /**
+     * Reads the snapshot back. The whole file is read and checked before anything is put back, so a damaged file
+     * leaves the catalog and the staff queues untouched for the CSV files. Company representatives, internships
+     * and applications are then put back straight away, since the catalog and the staff queues need them;
+     * students and staff are built when first asked for
+     */
+    public synchronized Contents load(InternshipViewerService internshipViewer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a snapshot file: " + path);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + " in " + path);
+        }
+        Contents contents;
+        try {
+            long journalGeneration = buffer.getLong();
+            contents = new Contents(buffer, internshipViewer, journalGeneration);
+        } catch (RuntimeException e) {
+            throw new IOException("Damaged snapshot " + path + ": " + e, e);
+        }
+        contents.restore();
+        return contents;
+    }
+
+    /**
+     * This is what a snapshot holds. Students and staff are read-only and build each person the first time
+     * they are looked at
+     */
+    public static final class Contents {
+        private final ByteBuffer buffer;
+        private final InternshipViewerService internshipViewer;
+        private final int[] stringOffsets;
+        private final int stringBase;
+        private final String[] strings;
+        private final SavedUsers<Student> students;
+        private final SavedUsers<CareerCenterStaff> staff;
+        private final List<CompanyRepresentative> reps = new ArrayList<>();
+        private final long journalGeneration;
+
+        // Read and checked by the constructor, put back by restore()
+        private final List<SavedRep> savedReps = new ArrayList<>();
+        private final List<SavedInternship> savedInternships = new ArrayList<>();
+        private final List<SavedApplication> savedApplications = new ArrayList<>();
+        private int[] savedWithdrawals;
+        private long[][] savedRepQueue;
+        private long[][] savedInternshipQueue;
+
+        private Contents(ByteBuffer buffer, InternshipViewerService internshipViewer, long journalGeneration) {
+            this.buffer = buffer;
+            this.internshipViewer = internshipViewer;
+            this.journalGeneration = journalGeneration;
+
+            int count = buffer.getInt();
+            stringOffsets = new int[count + 1];
+            for (int i = 0; i <= count; i++) {
+                stringOffsets[i] = buffer.getInt();
+                if (stringOffsets[i] < (i == 0 ? 0 : stringOffsets[i - 1])) {
+                    throw new IllegalStateException("string " + i + " out of order");
+                }
+            }
+            stringBase = buffer.position();
+            strings = new String[count];
+            buffer.position(stringBase + stringOffsets[count]);
+
+            int studentBase = section(STUDENT_FIELDS, 5);
+            int studentCount = buffer.getInt(studentBase - 4);
+            int staffBase = section(STAFF_FIELDS, 4);
+            int staffCount = buffer.getInt(staffBase - 4);
+            int studentOrder = idOrder(studentCount);
+            int staffOrder = idOrder(staffCount);
+            students = new SavedUsers<>(new LazyList<>(studentCount, i -> readStudent(studentBase + i * STUDENT_FIELDS * 4)),
+                                        studentBase, STUDENT_FIELDS, studentOrder);
+            staff = new SavedUsers<>(new LazyList<>(staffCount, i -> readStaff(staffBase + i * STAFF_FIELDS * 4)),
+                                     staffBase, STAFF_FIELDS, staffOrder);
+
+            read(studentCount);
+        }
+
+        public UserDirectory<Student> getStudents() { return students; }
+        public UserDirectory<CareerCenterStaff> getStaff() { return staff; }
+
+        // A list of their own, since new representatives keep registering
+        public List<CompanyRepresentative> getRepresentatives() { return reps; }
+
+        public long getJournalGeneration() { return journalGeneration; }
+
+        // Skips over a section of fixed-size records and returns where its first record starts. The first
+        // stringFields ints of each record must be strings in the dictionary
+        private int section(int fields, int stringFields) {
+            int count = buffer.getInt();
+            int base = buffer.position();
+            buffer.position(base + count * fields * 4);
+            for (int i = 0; i < count; i++) {
+                for (int f = 0; f < stringFields; f++) {
+                    checkString(buffer.getInt(base + (i * fields + f) * 4));
+                }
+            }
+            return base;
+        }
+
+        // Skips over a table of positions sorted by ID and returns where it starts
+        private int idOrder(int count) {
+            if (buffer.getInt() != count) {
+                throw new IllegalStateException("ID table does not match its section");
+            }
+            int base = buffer.position();
+            buffer.position(base + count * 4);
+            for (int i = 0; i < count; i++) {
+                index(buffer.getInt(base + i * 4), count, "user");
+            }
+            return base;
+        }
+
+        // Everything after the students and staff, read into plain records without touching the rest of the system
+        private void read(int studentCount) {
+            int repCount = buffer.getInt();
+            for (int i = 0; i < repCount; i++) {
+                savedReps.add(new SavedRep(string(), string(), string(), string(), string(), string(),
+                                           buffer.getInt() == 1));
+            }
+
+            int internshipCount = buffer.getInt();
+            for (int i = 0; i < internshipCount; i++) {
+                int owner = index(buffer.getInt(), repCount, "representative");
+                savedInternships.add(new SavedInternship(owner, string(), string(), string(), string(),
+                        LocalDate.ofEpochDay(buffer.getInt()), LocalDate.ofEpochDay(buffer.getInt()),
+                        buffer.getInt(), string(), buffer.getInt() == 1, internshipStatus(buffer.getInt())));
+            }
+
+            int applicationCount = buffer.getInt();
+            for (int i = 0; i < applicationCount; i++) {
+                int student = index(buffer.getInt(), studentCount, "student");
+                int internship = index(buffer.getInt(), internshipCount, "internship");
+                ApplicationStatus status = applicationStatus(buffer.getInt());
+                int before = buffer.getInt();
+                savedApplications.add(new SavedApplication(student, internship, status,
+                        before < 0 ? null : applicationStatus(before), buffer.getInt() == 1, buffer.getInt() == 1));
+            }
+
+            savedWithdrawals = new int[buffer.getInt()];
+            for (int i = 0; i < savedWithdrawals.length; i++) {
+                savedWithdrawals[i] = index(buffer.getInt(), applicationCount, "application");
+            }
+            savedRepQueue = readQueue(repCount);
+            savedInternshipQueue = readQueue(internshipCount);
+        }
+
+        private long[][] readQueue(int itemCount) {
+            long[][] entries = new long[buffer.getInt()][];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = new long[] { index(buffer.getInt(), itemCount, "queued item"), buffer.getLong() };
+            }
+            return entries;
+        }
+
+        // Puts everything read back into the catalog and the staff queues; only reached once the whole file was read
+        private void restore() {
+            for (SavedRep saved : savedReps) {
+                CompanyRepresentative rep = new CompanyRepresentative(saved.id(), saved.name(), saved.company(),
+                        saved.department(), saved.position(), internshipViewer);
+                rep.setPasswordHash(saved.passwordHash());
+                rep.setApproved(saved.approved());
+                reps.add(rep);
+            }
+
+            List<InternshipOpportunity> internships = new ArrayList<>(savedInternships.size());
+            for (SavedInternship saved : savedInternships) {
+                CompanyRepresentative rep = reps.get(saved.owner());
+                // Built with its saved status and visibility, so the catalog and its listeners first see it as it was
+                InternshipOpportunity opp = InternshipOpportunity.restore(saved.title(), saved.description(),
+                        saved.level(), saved.preferredMajor(), saved.openDate(), saved.closeDate(), saved.slots(),
+                        saved.company(), saved.status(), saved.visible());
+                rep.getInternships().add(opp);
+                InternshipCatalog.add(rep, opp);
+                internships.add(opp);
+            }
+
+            List<InternshipApplication> applications = new ArrayList<>(savedApplications.size());
+            for (SavedApplication saved : savedApplications) {
+                Student student = students.getAll().get(saved.student());
+                InternshipApplication app = InternshipApplication.restore(student, internships.get(saved.internship()),
+                        saved.status(), saved.statusBeforeWithdrawal());
+                if (saved.held()) {
+                    student.getAppliedInternships().add(app);
+                }
+                if (saved.accepted()) {
+                    student.setAcceptedInternship(app);
+                }
+                applications.add(app);
+            }
+
+            for (int i : savedWithdrawals) {
+                WithdrawalQueue.push(applications.get(i));
+            }
+            restoreQueue(ApprovalQueues.representatives(), reps, savedRepQueue);
+            restoreQueue(ApprovalQueues.internships(), internships, savedInternshipQueue);
+
+            savedReps.clear();
+            savedInternships.clear();
+            savedApplications.clear();
+        }
+
+        private static <T> void restoreQueue(ApprovalQueue<T> queue, List<T> items, long[][] entries) {
+            for (long[] entry : entries) {
+                queue.restore(items.get((int) entry[0]), Instant.ofEpochMilli(entry[1]));
+            }
+        }
+
+        // Statuses are kept by label, so reordering the enums does not change what a file means
+        private InternshipStatus internshipStatus(int value) {
+            InternshipStatus status = InternshipStatus.fromLabel(string(checkString(value)));
+            if (status == null) {
+                throw new IllegalStateException("unknown internship status " + string(value));
+            }
+            return status;
+        }
+
+        private ApplicationStatus applicationStatus(int value) {
+            ApplicationStatus status = ApplicationStatus.fromLabel(string(checkString(value)));
+            if (status == null) {
+                throw new IllegalStateException("unknown application status " + string(value));
+            }
+            return status;
+        }
+
+        private static int index(int i, int count, String what) {
+            if (i < 0 || i >= count) {
+                throw new IllegalStateException(what + " " + i + " out of range");
+            }
+            return i;
+        }
+
+        private Student readStudent(int at) {
+            Student s = new Student(string(buffer.getInt(at)), string(buffer.getInt(at + 4)),
+                                    buffer.getInt(at + 20), string(buffer.getInt(at + 12)),
+                                    string(buffer.getInt(at + 16)), internshipViewer);
+            s.setPasswordHash(string(buffer.getInt(at + 8)));
+            return s;
+        }
+
+        private CareerCenterStaff readStaff(int at) {
+            CareerCenterStaff s = new CareerCenterStaff(string(buffer.getInt(at)), string(buffer.getInt(at + 4)),
+                                                        string(buffer.getInt(at + 12)), internshipViewer);
+            s.setPasswordHash(string(buffer.getInt(at + 8)));
+            return s;
+        }
+
+        private String string() {
+            return string(checkString(buffer.getInt()));
+        }
+
+        private int checkString(int id) {
+            if (id < -1 || id >= strings.length) {
+                throw new IllegalStateException("string " + id + " out of range");
+            }
+            return id;
+        }
+
+        // Strings are decoded the first time they are needed and then shared
+        private synchronized String string(int id) {
+            if (id < 0) return null;
+            String s = strings[id];
+            if (s == null) {
+                int start = stringBase + stringOffsets[id];
+                byte[] bytes = new byte[stringOffsets[id + 1] - stringOffsets[id]];
+                buffer.get(start, bytes);
+                s = new String(bytes, StandardCharsets.UTF_8);
+                strings[id] = s;
+            }
+            return s;
+        }
+
+        // Students or staff, found by ID through the saved sorted table; only the IDs compared are decoded
+        private final class SavedUsers<T extends User> implements UserDirectory<T> {
+            private final List<T> users;
+            private final int base;
+            private final int fields;
+            private final int order;
+
+            private SavedUsers(List<T> users, int base, int fields, int order) {
+                this.users = users;
+                this.base = base;
+                this.fields = fields;
+                this.order = order;
+            }
+
+            @Override
+            public T findById(String userID) {
+                int count = users.size();
+                // The first entry not below userID; equal IDs are kept in file order, so this is the first of them
+                int low = 0;
+                int high = count;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (compareIds(idAt(buffer.getInt(order + mid * 4)), userID) < 0) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                if (low < count) {
+                    int i = buffer.getInt(order + low * 4);
+                    if (compareIds(idAt(i), userID) == 0) return users.get(i);
+                }
+                return null;
+            }
+
+            @Override
+            public List<T> getAll() {
+                return users;
+            }
+
+            private String idAt(int i) {
+                return string(buffer.getInt(base + i * fields * 4));
+            }
+        }
+
+        // The same order the ID table was sorted in when it was saved
+        private static int compareIds(String a, String b) {
+            if (a == null || b == null) {
+                return a == null ? (b == null ? 0 : -1) : 1;
+            }
+            return a.compareTo(b);
+        }
+
+        private record SavedRep(String id, String name, String passwordHash, String company, String department,
+                                String position, boolean approved) { }
+
+        private record SavedInternship(int owner, String title, String description, String level,
+                                       String preferredMajor, LocalDate openDate, LocalDate closeDate, int slots,
+                                       String company, boolean visible, InternshipStatus status) { }
+
+        private record SavedApplication(int student, int internship, ApplicationStatus status,
+                                        ApplicationStatus statusBeforeWithdrawal, boolean accepted, boolean held) { }
+    }
+
+    // Read-only list that builds each element the first time it is asked for
+    private static final class LazyList<T> extends AbstractList<T> {
+        private final Object[] built;
+        private final IntFunction<T> builder;
+
+        private LazyList(int size, IntFunction<T> builder) {
+            this.built = new Object[size];
+            this.builder = builder;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public synchronized T get(int index) {
+            Object element = built[index];
+            if (element == null) {
+                element = builder.apply(index);
+                built[index] = element;
+            }
+            return (T) element;
+        }
+
+        @Override
+        public int size() {
+            return built.length;
+        }
+    }
+
+    // The string dictionary: each distinct string once, numbered in the order first seen
+    private static final class Strings {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<Integer> offsets = new ArrayList<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private int id(String s) {
+            if (s == null) return -1;
+            Integer id = ids.get(s);
+            if (id == null) {
+                id = ids.size();
+                ids.put(s, id);
+                offsets.add(bytes.size());
+                bytes.writeBytes(s.getBytes(StandardCharsets.UTF_8));
+            }
+            return id;
+        }
+
+        private void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(ids.size());
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            out.writeInt(bytes.size());
+            bytes.writeTo(out);
+        }
+    }
+}
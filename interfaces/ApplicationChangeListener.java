@@ -0,0 +1,16 @@
+package interfaces;
+
+import models.ApplicationStatus;
+import models.InternshipApplication;
+/**
+ * This is to be notified when an application is made, changes status or is taken off a student's list.
+ * Status changes are passed on while the application is still locked, so they arrive in order; a listener
+ * must not wait on anything
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public interface ApplicationChangeListener {
+    void applicationAdded(InternshipApplication app);
+    void applicationStatusChanged(InternshipApplication app, ApplicationStatus from, ApplicationStatus to);
+    void applicationRemoved(InternshipApplication app);
+}
@@ -1,7 +1,12 @@
 package interfaces;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface DataLoader<T> {
     List<T> readFromCSV(String filename);
-}
\ No newline at end of file
+
+    // Records in file order as they are read, so the file never has to fit in memory; bad records go to errors
+    Stream<T> streamFromCSV(String filename, LoadErrorSink errors) throws IOException;
+}
@@ -0,0 +1,13 @@
+package interfaces;
+
+import models.InternshipOpportunity;
+/**
+ * This is to be notified when an internship is created, changed or deleted
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public interface InternshipChangeListener {
+    void internshipAdded(InternshipOpportunity opp);
+    void internshipChanged(InternshipOpportunity opp);
+    void internshipRemoved(InternshipOpportunity opp);
+}
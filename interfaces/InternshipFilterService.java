@@ -2,6 +2,8 @@ package interfaces;
 
 import models.InternshipOpportunity;
 import models.InternshipFilter;
+import services.InternshipFacets;
+import services.InternshipPage;
 import java.util.List;
 /**
  * This is to get the internship with matching characteristic
@@ -10,9 +12,12 @@ import java.util.List;
  */
 public interface InternshipFilterService {
     List<InternshipOpportunity> filterInternships(List<InternshipOpportunity> internships, InternshipFilter filter);
+    InternshipPage filterInternshipsPage(List<InternshipOpportunity> internships, InternshipFilter filter,
+                                         int pageSize, String continuationToken);
     List<String> getAvailableLevels(List<InternshipOpportunity> internships);
     List<String> getAvailableCompanies(List<InternshipOpportunity> internships);
     List<String> getAvailableStatuses(List<InternshipOpportunity> internships);
     List<String> getAvailablePreferredMajors(List<InternshipOpportunity> internships);
+    InternshipFacets getFacets(List<InternshipOpportunity> internships, InternshipFilter relativeTo);
 }
 
@@ -0,0 +1,15 @@
+package interfaces;
+
+import data.LoadError;
+/**
+ * This is where a data loader sends the records it could not use, instead of printing them
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface LoadErrorSink {
+    void error(LoadError error);
+
+    // Prints each error the way the loaders always have
+    LoadErrorSink PRINT = error -> System.out.println(error.getMessage());
+}
@@ -0,0 +1,14 @@
+package interfaces;
+
+import models.CompanyRepresentative;
+import models.User;
+/**
+ * This is to be notified when a representative registers or is approved, or when anyone changes their password
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public interface UserChangeListener {
+    void representativeRegistered(CompanyRepresentative rep);
+    void representativeApprovalChanged(CompanyRepresentative rep);
+    void passwordChanged(User user);
+}
@@ -0,0 +1,20 @@
+package interfaces;
+
+import models.User;
+import java.util.List;
+/**
+ * This is a set of users that can be looked up by ID without going through all of them
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public interface UserDirectory<T extends User> {
+    // The first user with this ID, or null when there is none
+    T findById(String userID);
+
+    // Everyone, in the order they were loaded
+    List<T> getAll();
+
+    default int size() {
+        return getAll().size();
+    }
+}
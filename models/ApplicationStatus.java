@@ -0,0 +1,64 @@
+package models;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+/**
+ * This is the status of an internship application
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public enum ApplicationStatus {
+    PENDING("Pending"),
+    OFFERED("Offered"),
+    ACCEPTED("Accepted"),
+    REJECTED("Rejected"),
+    WITHDRAWAL_REQUESTED("Withdrawal Requested"),
+    WITHDRAWN("Withdrawn");
+
+    private static final Map<String, ApplicationStatus> byLabel = new HashMap<>();
+    static {
+        for (ApplicationStatus s : values()) {
+            byLabel.put(s.label.toLowerCase(Locale.ROOT), s);
+        }
+    }
+
+    private final String label;
+
+    ApplicationStatus(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() { return label; }
+
+    // Pending -> Offered -> Accepted, with rejection and withdrawal on the way. A withdrawal request either
+    // ends in Withdrawn or goes back to the status it was made from, which InternshipApplication checks
+    public boolean canMoveTo(ApplicationStatus next) {
+        switch (this) {
+            case PENDING:
+                return next == OFFERED || next == REJECTED || next == WITHDRAWAL_REQUESTED;
+            case OFFERED:
+                return next == ACCEPTED || next == REJECTED || next == WITHDRAWAL_REQUESTED;
+            case ACCEPTED:
+                return next == WITHDRAWAL_REQUESTED;
+            case WITHDRAWAL_REQUESTED:
+                return next == WITHDRAWN || next == PENDING || next == OFFERED || next == ACCEPTED;
+            case REJECTED:
+            case WITHDRAWN:
+            default:
+                return false;
+        }
+    }
+
+    public boolean isFinal() {
+        return this == REJECTED || this == WITHDRAWN;
+    }
+
+    // Case-insensitive lookup; null when the label is not a known status
+    public static ApplicationStatus fromLabel(String label) {
+        return label == null ? null : byLabel.get(label.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public String toString() { return label; }
+}
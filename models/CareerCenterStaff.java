@@ -2,11 +2,16 @@ package models;
 
 import interfaces.ApprovalProcessor;
 import interfaces.InternshipViewer;
+import services.ApprovalQueue;
+import services.ApprovalQueues;
 import services.ApprovalService;
+import services.InternshipCatalog;
+import services.WithdrawalQueue;
 import services.InternshipViewerService;
+import services.StatisticsAggregator;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
-import java.util.ArrayList;
 /**
  * This is Career Centre Staff which handles approval
  * @author Dai Jiayu
@@ -16,6 +21,7 @@ public class CareerCenterStaff extends User implements ApprovalProcessor, Intern
     private String department;
     private final ApprovalService approvalService;
     private final InternshipViewerService internshipViewer;
+    private static final int WITHDRAWALS_SHOWN = 20;
 
     public CareerCenterStaff(String userID, String name, String department,
                            InternshipViewerService internshipViewer) {
@@ -31,21 +37,23 @@ public class CareerCenterStaff extends User implements ApprovalProcessor, Intern
     @Override
     public void approveCompanyRepresentatives(List<CompanyRepresentative> reps) {
         Scanner sc = new Scanner(System.in);
+        // Unapproved representatives are kept in ApprovalQueues in registration order, so reps is not scanned
+        ApprovalQueue<CompanyRepresentative> queue = ApprovalQueues.representatives();
 
         while (true) {
-            List<CompanyRepresentative> pending = reps.stream()
-                    .filter(r -> !r.isApproved())
-                    .toList();
+            List<CompanyRepresentative> pending = queue.getPending();
 
             if (pending.isEmpty()) {
                 System.out.println("No pending company representatives.");
                 break;
             }
 
-            System.out.println("\n--- Pending Company Representatives ---");
+            System.out.println("\n--- Pending Company Representatives (oldest waiting " +
+                               ApprovalQueue.formatAge(queue.getOldestAge()) + ") ---");
             for (int i = 0; i < pending.size(); i++) {
                 CompanyRepresentative r = pending.get(i);
-                System.out.println((i + 1) + ". " + r.getName() + " | Company: " + r.getCompany());
+                System.out.println((i + 1) + ". " + r.getName() + " | Company: " + r.getCompany() +
+                                   " | Waiting: " + ApprovalQueue.formatAge(queue.getAge(r)));
             }
 
             System.out.print("Enter number to approve (0 to cancel): ");
@@ -72,18 +80,18 @@ public class CareerCenterStaff extends User implements ApprovalProcessor, Intern
     @Override
     public void approveInternships(List<CompanyRepresentative> reps) {
         Scanner sc = new Scanner(System.in);
-
-        for (CompanyRepresentative rep : reps) {
-            for (InternshipOpportunity i : rep.getInternships()) {
-                if (!i.getStatus().equalsIgnoreCase("Pending")) continue;
-
-                System.out.println("\n--- Internship Approval ---");
-                i.displayInfo();
-                System.out.print("Approve this internship? (y/n): ");
-                String ans = sc.nextLine().trim();
-                if (ans.equalsIgnoreCase("y")) {
-                    approvalService.approveInternship(i);
-                }
+        ApprovalQueue<InternshipOpportunity> queue = ApprovalQueues.internships();
+
+        // Oldest submission first; copied, since approving one takes it out of the queue
+        for (InternshipOpportunity i : queue.getPending()) {
+            if (i.getStatusCode() != InternshipStatus.PENDING) continue;
+
+            System.out.println("\n--- Internship Approval (waiting " + ApprovalQueue.formatAge(queue.getAge(i)) + ") ---");
+            i.displayInfo();
+            System.out.print("Approve this internship? (y/n): ");
+            String ans = sc.nextLine().trim();
+            if (ans.equalsIgnoreCase("y")) {
+                approvalService.approveInternship(i);
             }
         }
     }
@@ -93,27 +101,22 @@ public class CareerCenterStaff extends User implements ApprovalProcessor, Intern
  */
     @Override
     public void processWithdrawals(List<Student> students) {
+        // Requests are taken from the system-wide WithdrawalQueue, so the students do not need to be scanned
         Scanner sc = new Scanner(System.in);
-        List<InternshipApplication> withdrawalRequests = new ArrayList<>();
-        for (Student student : students){
-            for (InternshipApplication app : student.getAppliedInternships()) {
-                if (app.isWithdrawRequested()) {
-                    withdrawalRequests.add(app);
-                }
-            }
-        }
     
-        if (withdrawalRequests.isEmpty()) {
+        if (WithdrawalQueue.isEmpty()) {
             System.out.println("No withdrawal requests found.");
             return;
         }
     
         System.out.println("\n=== Withdrawal Requests ===");
-        System.out.println("Found " + withdrawalRequests.size() + " withdrawal request(s):");
+        System.out.println("Found " + WithdrawalQueue.size() + " withdrawal request(s):");
     
-        while (!withdrawalRequests.isEmpty()) {
-            // Display current withdrawal requests
-            System.out.println("\n--- Pending Withdrawal Requests ---");
+        while (!WithdrawalQueue.isEmpty()) {
+            // Display the oldest withdrawal requests
+            List<InternshipApplication> withdrawalRequests = WithdrawalQueue.peekOldest(WITHDRAWALS_SHOWN);
+            System.out.println("\n--- Pending Withdrawal Requests (oldest " + withdrawalRequests.size() +
+                               " of " + WithdrawalQueue.size() + ") ---");
             for (int i = 0; i < withdrawalRequests.size(); i++) {
                 InternshipApplication app = withdrawalRequests.get(i);
                 Student student = app.getStudent();
@@ -130,7 +133,8 @@ public class CareerCenterStaff extends User implements ApprovalProcessor, Intern
             System.out.println("1. Approve a withdrawal request");
             System.out.println("2. Reject a withdrawal request");
             System.out.println("3. Approve all pending requests");
-            System.out.println("4. Exit withdrawal processing");
+            System.out.println("4. Approve the oldest N requests");
+            System.out.println("5. Exit withdrawal processing");
             System.out.print("Choose an option: ");
         
             String option = sc.nextLine().trim();
@@ -143,23 +147,23 @@ public class CareerCenterStaff extends User implements ApprovalProcessor, Intern
                     approveSingleWithdrawal(withdrawalRequests, sc, false);
                     break;
                 case "3":
-                    approveAllWithdrawals(withdrawalRequests);
-                    withdrawalRequests.clear();
+                    approveOldestWithdrawals(WithdrawalQueue.size());
                     System.out.println("All pending withdrawal requests have been approved.");
                     return;
                 case "4":
+                    System.out.print("How many of the oldest requests to approve? ");
+                    try {
+                        approveOldestWithdrawals(Integer.parseInt(sc.nextLine().trim()));
+                    } catch (NumberFormatException e) {
+                        System.out.println("Invalid input. Please enter a number.");
+                    }
+                    break;
+                case "5":
                     System.out.println("Exiting withdrawal processing.");
                     return;
                 default:
                     System.out.println("Invalid option. Please try again.");
             }
-        
-
-            for (int i = withdrawalRequests.size() - 1; i >= 0; i--) {
-                if (!withdrawalRequests.get(i).isWithdrawRequested()) {
-                    withdrawalRequests.remove(i);
-                }
-            }
         }
     
         System.out.println("All withdrawal requests processed.");
@@ -204,9 +208,9 @@ public class CareerCenterStaff extends User implements ApprovalProcessor, Intern
                     student.removeApplication(selectedApp);
                     System.out.println(" Withdrawal approved for " + student.getName());
                 } else {
-                    selectedApp.setWithdrawRequested(false);
-                    selectedApp.setStatus("Pending"); // Reset to pending status
-                    System.out.println(" Withdrawal rejected for " + student.getName() + ". Application reset to pending status.");
+                    approvalService.rejectWithdrawal(selectedApp); // back to the status it had before the request
+                    System.out.println(" Withdrawal rejected for " + student.getName() + ". Application returned to " +
+                                       selectedApp.getStatus() + " status.");
                 }
             } else {
                 System.out.println("Operation cancelled.");
@@ -218,9 +222,8 @@ public class CareerCenterStaff extends User implements ApprovalProcessor, Intern
     }
 
 
-    private void approveAllWithdrawals(List<InternshipApplication> withdrawalRequests) {
-        for (InternshipApplication app : withdrawalRequests) {
-            approvalService.approveWithdrawal(app);
+    private void approveOldestWithdrawals(int count) {
+        for (InternshipApplication app : approvalService.approveOldestWithdrawals(count)) {
             app.getStudent().removeApplication(app);
             System.out.println("Approved withdrawal for " + app.getStudent().getName() + 
                             " from " + app.getInternship().getTitle());
@@ -237,37 +240,27 @@ public class CareerCenterStaff extends User implements ApprovalProcessor, Intern
         return "staff";
     }
 
-    public void viewApprovedInternships(List<CompanyRepresentative> reps) {
+    public void viewApprovedInternships() {
         System.out.println("\n--- Approved Internships ---");
-        boolean found = false;
+        List<InternshipOpportunity> approved = InternshipCatalog.getByStatus(InternshipStatus.APPROVED);
 
-        for (CompanyRepresentative rep : reps) {
-            for (InternshipOpportunity i : rep.getInternships()) {
-                if ("Approved".equalsIgnoreCase(i.getStatus())) {
-                    i.displayInfo();
-                    found = true;
-                }
-            }
+        for (InternshipOpportunity i : approved) {
+            i.displayInfo();
         }
 
-        if (!found) System.out.println("No approved internships found.");
+        if (approved.isEmpty()) System.out.println("No approved internships found.");
     }
 
     // View pending internships
-    public void viewPendingInternships(List<CompanyRepresentative> reps) {
+    public void viewPendingInternships() {
         System.out.println("\n--- Pending Internships ---");
-        boolean found = false;
+        List<InternshipOpportunity> pending = InternshipCatalog.getByStatus(InternshipStatus.PENDING);
 
-        for (CompanyRepresentative rep : reps) {
-            for (InternshipOpportunity i : rep.getInternships()) {
-                if ("Pending".equalsIgnoreCase(i.getStatus())) {
-                    i.displayInfo();
-                    found = true;
-                }
-            }
+        for (InternshipOpportunity i : pending) {
+            i.displayInfo();
         }
 
-        if (!found) System.out.println("No pending internships found.");
+        if (pending.isEmpty()) System.out.println("No pending internships found.");
     }
 
     public void viewAllInternships(List<CompanyRepresentative> reps) {
@@ -290,20 +283,18 @@ public class CareerCenterStaff extends User implements ApprovalProcessor, Intern
     public void viewCompanyRepStats(List<CompanyRepresentative> reps) {
         System.out.println("\n=== Company Representatives Statistics ===");
     
-        int totalReps = reps.size();
-        int approvedReps = 0;
-    
-        for (CompanyRepresentative rep : reps) {
-            if (rep.isApproved()) {
-                approvedReps++;
-            }
-        }
-    
-        int pendingReps = totalReps - approvedReps;
+        // Running totals; only the detailed list below walks the representatives
+        long totalReps = StatisticsAggregator.countRepresentatives();
+        long approvedReps = StatisticsAggregator.countApprovedRepresentatives();
+        long pendingReps = StatisticsAggregator.countPendingRepresentatives();
     
         System.out.println("Total Representatives: " + totalReps);
         System.out.println("Approved: " + approvedReps);
         System.out.println("Pending: " + pendingReps);
+        if (!ApprovalQueues.representatives().isEmpty()) {
+            System.out.println("Oldest Pending Waiting: " +
+                               ApprovalQueue.formatAge(ApprovalQueues.representatives().getOldestAge()));
+        }
     
         if (!reps.isEmpty()) {
             System.out.println("\nDetailed List:");
@@ -315,46 +306,46 @@ public class CareerCenterStaff extends User implements ApprovalProcessor, Intern
     }
 
     // View internship statistics
-    public void viewInternshipStats(List<CompanyRepresentative> reps) {
+    public void viewInternshipStats() {
         System.out.println("\n=== Internship Statistics ===");
-        int totalInternships = 0;
-        int pendingInternships = 0;
-        int approvedInternships = 0;
-        int visibleInternships = 0;
-
-        for (CompanyRepresentative rep : reps) {
-            totalInternships += rep.getInternships().size();
-            for (InternshipOpportunity opp : rep.getInternships()) {
-                if ("Pending".equalsIgnoreCase(opp.getStatus())) {
-                    pendingInternships++;
-                } else if ("Approved".equalsIgnoreCase(opp.getStatus())) {
-                    approvedInternships++;
-                    if (opp.isVisible()) {
-                        visibleInternships++;
-                    }
-                }
-            }
-        }
+        // Running totals, so nothing has to be walked here
+        long totalInternships = StatisticsAggregator.countInternships();
+        long pendingInternships = StatisticsAggregator.countInternships(InternshipStatus.PENDING);
+        long approvedInternships = StatisticsAggregator.countInternships(InternshipStatus.APPROVED);
+        long visibleInternships = StatisticsAggregator.countVisible(InternshipStatus.APPROVED);
 
         System.out.println("Total Internships: " + totalInternships);
         System.out.println("Pending Approval: " + pendingInternships);
+        if (!ApprovalQueues.internships().isEmpty()) {
+            System.out.println("Oldest Pending Waiting: " +
+                               ApprovalQueue.formatAge(ApprovalQueues.internships().getOldestAge()));
+        }
         System.out.println("Approved: " + approvedInternships);
         System.out.println("Visible to Students: " + visibleInternships);
-    }
+        for (InternshipStatus status : InternshipStatus.values()) {
+            if (status == InternshipStatus.PENDING || status == InternshipStatus.APPROVED) continue;
+            System.out.println(status.getLabel() + ": " + StatisticsAggregator.countInternships(status));
+        }
 
-    // Reject an internship (staff can reject pending internships)
-    public void rejectInternship(List<CompanyRepresentative> reps) {
-        Scanner sc = new Scanner(System.in);
-        List<InternshipOpportunity> pendingInternships = new ArrayList<>();
+        System.out.println("\nApplications: " + StatisticsAggregator.countApplications());
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            System.out.println(" - " + status.getLabel() + ": " + StatisticsAggregator.countApplications(status));
+        }
 
-        // Collect all pending internships
-        for (CompanyRepresentative rep : reps) {
-            for (InternshipOpportunity opp : rep.getInternships()) {
-                if ("Pending".equalsIgnoreCase(opp.getStatus())) {
-                    pendingInternships.add(opp);
-                }
+        Map<String, Long> byCompany = StatisticsAggregator.getCompanyTotals();
+        if (!byCompany.isEmpty()) {
+            System.out.println("\nInternships by Company:");
+            for (Map.Entry<String, Long> e : byCompany.entrySet()) {
+                System.out.println(" - " + e.getKey() + ": " + e.getValue());
             }
         }
+    }
+
+    // Reject an internship (staff can reject pending internships)
+    public void rejectInternship() {
+        Scanner sc = new Scanner(System.in);
+        // Oldest submission first; a copy, so rejecting one does not disturb the list
+        List<InternshipOpportunity> pendingInternships = ApprovalQueues.internships().getPending();
 
         if (pendingInternships.isEmpty()) {
             System.out.println("No pending internships to reject.");
@@ -1,7 +1,11 @@
 package models;
 
 import interfaces.InternshipViewer;
+import services.ApprovalQueues;
+import services.InternshipCatalog;
 import services.InternshipViewerService;
+import services.StatisticsAggregator;
+import services.UserChangeNotifier;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,6 +34,9 @@ public class CompanyRepresentative extends User implements InternshipViewer {
         this.approved = false;
         this.internships = new ArrayList<>();
         this.internshipViewer = internshipViewer;
+        ApprovalQueues.representativeChanged(this); // waits for staff from registration on
+        StatisticsAggregator.representativeRegistered(this);
+        UserChangeNotifier.fireRepresentativeRegistered(this);
     }
 
     // Getters and setters
@@ -38,7 +45,15 @@ public class CompanyRepresentative extends User implements InternshipViewer {
     public String getPosition() { return position; }
     public List<InternshipOpportunity> getInternships() { return internships; }
     public boolean isApproved() { return approved; }
-    public void setApproved(boolean approved) { this.approved = approved; }
+    public void setApproved(boolean approved) {
+        boolean changed = this.approved != approved;
+        this.approved = approved;
+        ApprovalQueues.representativeChanged(this);
+        if (changed) {
+            StatisticsAggregator.representativeApprovalChanged(approved);
+            UserChangeNotifier.fireRepresentativeApprovalChanged(this);
+        }
+    }
 
     // Internship management
     public void createInternshipOpportunity(String title, String description, String level, String preferredMajor,
@@ -46,6 +61,7 @@ public class CompanyRepresentative extends User implements InternshipViewer {
         InternshipOpportunity opp = new InternshipOpportunity(title, description, level, preferredMajor,
                                                               openDate, closeDate, slots, this.company);
         internships.add(opp);
+        InternshipCatalog.add(this, opp);
         System.out.println("Created internship: " + title + " | Company: " + this.company);
     }
 
@@ -79,7 +95,7 @@ public class CompanyRepresentative extends User implements InternshipViewer {
         System.out.println("Your pending internships:");
         List<InternshipOpportunity> pending = new ArrayList<>();
         for (InternshipOpportunity i : internships) {
-            if ("Pending".equalsIgnoreCase(i.getStatus())) {
+            if (i.getStatusCode() == InternshipStatus.PENDING) {
                 pending.add(i);
                 System.out.println(pending.size() + ". " + i.getTitle());
             }
@@ -254,7 +270,7 @@ public class CompanyRepresentative extends User implements InternshipViewer {
         InternshipOpportunity selected = internships.get(choice - 1);
 
         // prevent deleting approved internships
-        if ("Approved".equalsIgnoreCase(selected.getStatus())) {
+        if (selected.getStatusCode() == InternshipStatus.APPROVED) {
             System.out.println("Cannot delete approved internship opportunities.");
             return;
         }
@@ -264,6 +280,7 @@ public class CompanyRepresentative extends User implements InternshipViewer {
 
         if (confirm.equals("yes")) {
             internships.remove(selected);
+            InternshipCatalog.remove(selected);
             System.out.println("Internship \"" + selected.getTitle() + "\" has been deleted successfully.");
         } else {
             System.out.println("Deletion cancelled.");
@@ -283,7 +300,7 @@ public class CompanyRepresentative extends User implements InternshipViewer {
         System.out.println("Your approved internships:");
         List<InternshipOpportunity> approvedList = new ArrayList<>();
         for (InternshipOpportunity i : internships) {
-            if ("Approved".equalsIgnoreCase(i.getStatus())) {
+            if (i.getStatusCode() == InternshipStatus.APPROVED) {
                 approvedList.add(i);
                 System.out.println(approvedList.size() + ". " + i.getTitle() +
                         " (Currently: " + (i.isVisible() ? "Visible" : "Hidden") + ")");
@@ -318,10 +335,11 @@ public class CompanyRepresentative extends User implements InternshipViewer {
         Scanner sc = new Scanner(System.in);
 
         for (InternshipOpportunity i : internships) {
-            List<InternshipApplication> apps = i.getApplications();
+            // Only pending applications can be approved, and the internship keeps them in their own list
+            List<InternshipApplication> apps = i.getApplications(ApplicationStatus.PENDING);
 
             if (apps.isEmpty()) {
-                System.out.println("No applications for internship: " + i.getTitle());
+                System.out.println("No pending applications for internship: " + i.getTitle());
                 continue;
             }
 
@@ -347,7 +365,7 @@ public class CompanyRepresentative extends User implements InternshipViewer {
 
             if (choice > 0 && choice <= apps.size()) {
                 InternshipApplication selected = apps.get(choice - 1);
-                if ("Pending".equalsIgnoreCase(selected.getStatus())) {
+                if (selected.getStatusCode() == ApplicationStatus.PENDING) {
                     approveApplication(selected);
                 } else {
                     System.out.println("Cannot approve. Current status: " + selected.getStatus());
@@ -360,21 +378,32 @@ public class CompanyRepresentative extends User implements InternshipViewer {
 
     // Approve student application
     public void approveApplication(InternshipApplication app) {
-        if (!"Pending".equalsIgnoreCase(app.getStatus())) {
+        if (app.getStatusCode() != ApplicationStatus.PENDING) {
             System.out.println("Cannot approve application with status: " + app.getStatus());
             return;
         }
-        app.approve();
+        try {
+            app.approve();
+        } catch (IllegalStateException e) {
+            // The status can still move on between the check above and here
+            System.out.println("Cannot approve application: " + e.getMessage());
+            return;
+        }
         System.out.println("Application approved for " + app.getStudent().getName());
     }
 
     // Reject student application
     public void rejectApplication(InternshipApplication app) {
-        if (!"Pending".equalsIgnoreCase(app.getStatus())) {
+        if (app.getStatusCode() != ApplicationStatus.PENDING) {
             System.out.println("Cannot reject application with status: " + app.getStatus());
             return;
         }
-        app.reject();
+        try {
+            app.reject();
+        } catch (IllegalStateException e) {
+            System.out.println("Cannot reject application: " + e.getMessage());
+            return;
+        }
         System.out.println("Application rejected for " + app.getStudent().getName());
     }
 
@@ -388,43 +417,25 @@ public class CompanyRepresentative extends User implements InternshipViewer {
         System.out.println("Approved: " + approved);
         System.out.println("Internships Created: " + internships.size());
         
-        int pendingCount = (int) internships.stream()
-                .filter(opp -> "Pending".equalsIgnoreCase(opp.getStatus()))
-                .count();
-        int approvedCount = (int) internships.stream()
-                .filter(opp -> "Approved".equalsIgnoreCase(opp.getStatus()))
-                .count();
-        
-        System.out.println(" - Pending: " + pendingCount);
-        System.out.println(" - Approved: " + approvedCount);
+        System.out.println(" - Pending: " + getPendingInternshipsCount());
+        System.out.println(" - Approved: " + getApprovedInternshipsCount());
     }
 
     // Get pending internships count
     public int getPendingInternshipsCount() {
-        int count = 0;
-        for (InternshipOpportunity opp : internships) {
-            if ("Pending".equalsIgnoreCase(opp.getStatus())) {
-                count++;
-            }
-        }
-        return count;
+        return (int) StatisticsAggregator.countForRepresentative(getUserID(), InternshipStatus.PENDING);
     }
 
     // Get approved internships count
     public int getApprovedInternshipsCount() {
-        int count = 0;
-        for (InternshipOpportunity opp : internships) {
-            if ("Approved".equalsIgnoreCase(opp.getStatus())) {
-                count++;
-            }
-        }
-        return count;
+        return (int) StatisticsAggregator.countForRepresentative(getUserID(), InternshipStatus.APPROVED);
     }
 
     // Find internship by title
     public InternshipOpportunity findInternshipByTitle(String title) {
-        for (InternshipOpportunity opp : internships) {
-            if (opp.getTitle().equalsIgnoreCase(title)) {
+        // Other representatives of the same company may have used the title too
+        for (InternshipOpportunity opp : InternshipCatalog.findByCompanyAndTitle(company, title)) {
+            if (InternshipCatalog.getRepresentative(opp) == this) {
                 return opp;
             }
         }
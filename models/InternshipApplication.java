@@ -1,4 +1,6 @@
 package models;
+
+import services.ApplicationChangeNotifier;
 /**
  * This is InternshipApplication that have important methods related to application such as apply
  * @author Dai Jiayu
@@ -7,40 +9,75 @@ package models;
 public class InternshipApplication {
     private Student student;
     private InternshipOpportunity internship;
-    private String status; // Pending, Offered, Accepted, Rejected, Withdrawn, Withdrawal Requested
+    private ApplicationStatus status;
     private boolean withdrawRequested;
+    private ApplicationStatus statusBeforeWithdrawal; // where a turned-down withdrawal request goes back to
+    boolean counted; // set once the internship counts this application under its status
 
     public InternshipApplication(Student student, InternshipOpportunity internship) {
         this.student = student;
         this.internship = internship;
-        this.status = "Pending";
+        this.status = ApplicationStatus.PENDING;
         this.withdrawRequested = false;
     }
 
+    /**
+     * Puts back an application saved earlier, with the status it had, and adds it to the internship; the caller
+     * adds it to the student's list if the student still held it. Unlike a new application it skips the checks
+     * made when applying
+     */
+    public static InternshipApplication restore(Student student, InternshipOpportunity internship,
+                                                ApplicationStatus status, ApplicationStatus statusBeforeWithdrawal) {
+        InternshipApplication app = new InternshipApplication(student, internship);
+        app.status = status;
+        app.statusBeforeWithdrawal = status == ApplicationStatus.WITHDRAWAL_REQUESTED ? statusBeforeWithdrawal : null;
+        app.withdrawRequested = status == ApplicationStatus.WITHDRAWAL_REQUESTED;
+        internship.addApplication(app);
+        return app;
+    }
+
     public Student getStudent() { return student; }
     public InternshipOpportunity getInternship() { return internship; }
-    public String getStatus() { return status; }
+    public String getStatus() { return status.getLabel(); }
+    public ApplicationStatus getStatusCode() { return status; }
     public boolean isWithdrawRequested() { return withdrawRequested; }
 
     // --- Application Management ---
     public void approve() {
-        this.status = "Offered";
+        changeStatus(ApplicationStatus.OFFERED);
         System.out.println("Application approved for " + student.getName() +
                 " | Internship: " + internship.getTitle());
     }
 
     public void reject() {
-        this.status = "Rejected";
+        changeStatus(ApplicationStatus.REJECTED);
         System.out.println("Application rejected for " + student.getName() +
                 " | Internship: " + internship.getTitle());
     }
 
     public void withdraw() {
-        this.status = "Withdrawn";
+        changeStatus(ApplicationStatus.WITHDRAWN);
         this.withdrawRequested = false;
         System.out.println(student.getName() + " has withdrawn from " + internship.getTitle());
     }
 
+    public ApplicationStatus getStatusBeforeWithdrawal() { return statusBeforeWithdrawal; }
+
+    // Accepted applications keep their slot until the withdrawal actually goes through
+    public void requestWithdrawal() {
+        changeStatus(ApplicationStatus.WITHDRAWAL_REQUESTED);
+        setWithdrawRequested(true);
+    }
+
+    // Turns the withdrawal request down and puts the application back where it was
+    public void cancelWithdrawalRequest() {
+        if (status != ApplicationStatus.WITHDRAWAL_REQUESTED) {
+            throw new IllegalStateException("No withdrawal request to cancel");
+        }
+        changeStatus(statusBeforeWithdrawal);
+        this.withdrawRequested = false;
+    }
+
     public void setWithdrawRequested(boolean requested) {
         this.withdrawRequested = requested;
         if (requested) {
@@ -49,13 +86,71 @@ public class InternshipApplication {
     }
 
     public void setStatus(String status) {
-        this.status = status;
+        ApplicationStatus code = ApplicationStatus.fromLabel(status);
+        if (code == null) {
+            throw new IllegalArgumentException("Unknown application status: " + status);
+        }
+        setStatus(code);
+    }
+
+    public void setStatus(ApplicationStatus status) {
+        changeStatus(status);
+    }
+
+    // Accepts the offer if the internship still has a slot; returns false when it is full. An application
+    // that cannot be accepted at all still throws IllegalStateException
+    public boolean accept() {
+        return tryChangeStatus(ApplicationStatus.ACCEPTED);
+    }
+
+    private void changeStatus(ApplicationStatus next) {
+        if (!tryChangeStatus(next)) {
+            throw new IllegalStateException("No slots left for " + internship.getTitle());
+        }
+    }
+
+    // Every status change goes through here, so transitions are checked and the internship's counts,
+    // slots and per-status lists stay right. Returns false only when the move needs a slot and none is left
+    private synchronized boolean tryChangeStatus(ApplicationStatus next) {
+        ApplicationStatus previous = this.status;
+        if (previous == next) return true;
+        if (!previous.canMoveTo(next)) {
+            throw new IllegalStateException("Cannot move application from " + previous + " to " + next);
+        }
+        boolean leavingRequest = previous == ApplicationStatus.WITHDRAWAL_REQUESTED && next != ApplicationStatus.WITHDRAWN;
+        if (leavingRequest && next != statusBeforeWithdrawal) {
+            throw new IllegalStateException("A withdrawal request can only go back to " + statusBeforeWithdrawal);
+        }
+
+        ApplicationStatus before = next == ApplicationStatus.WITHDRAWAL_REQUESTED ? previous : statusBeforeWithdrawal;
+        boolean heldSlot = holdsSlot(previous, statusBeforeWithdrawal);
+        boolean holdsSlot = holdsSlot(next, before);
+        if (counted && holdsSlot && !heldSlot && !internship.tryReserveSlot()) {
+            return false;
+        }
+
+        this.status = next;
+        this.statusBeforeWithdrawal = next == ApplicationStatus.WITHDRAWAL_REQUESTED ? previous : null;
+        this.withdrawRequested = next == ApplicationStatus.WITHDRAWAL_REQUESTED;
+        if (counted) {
+            if (heldSlot && !holdsSlot) {
+                internship.releaseSlot();
+            }
+            internship.applicationStatusChanged(this, previous, next);
+        }
+        ApplicationChangeNotifier.fireStatusChanged(this, previous, next);
+        return true;
+    }
+
+    private static boolean holdsSlot(ApplicationStatus status, ApplicationStatus beforeWithdrawal) {
+        return status == ApplicationStatus.ACCEPTED ||
+               (status == ApplicationStatus.WITHDRAWAL_REQUESTED && beforeWithdrawal == ApplicationStatus.ACCEPTED);
     }
 
     public boolean isActive() {
         // Students should still see active applications even if internship is invisible
-        return !status.equalsIgnoreCase("Withdrawn")
-                && !status.equalsIgnoreCase("Rejected");
+        return status != ApplicationStatus.WITHDRAWN
+                && status != ApplicationStatus.REJECTED;
     }
 }
 
@@ -3,6 +3,7 @@ package models;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * This is the filter function to filter by certain criteria
@@ -18,6 +19,7 @@ public class InternshipFilter {
     private String preferredMajor;
     private String sortBy = "title"; 
     private boolean sortAscending = true;
+    private int version = 0; // bumped on every change so compiled plans know when to recompile
     
     public InternshipFilter() {
         
@@ -25,28 +27,43 @@ public class InternshipFilter {
     
     // ===== Getters and Setters =====
     public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public void setStatus(String status) { this.status = status; version++; }
     
     public String getLevel() { return level; }
-    public void setLevel(String level) { this.level = level; }
+    public void setLevel(String level) { this.level = level; version++; }
     
     public LocalDate getClosingDateBefore() { return closingDateBefore; }
-    public void setClosingDateBefore(LocalDate closingDateBefore) { this.closingDateBefore = closingDateBefore; }
+    public void setClosingDateBefore(LocalDate closingDateBefore) { this.closingDateBefore = closingDateBefore; version++; }
     
     public LocalDate getClosingDateAfter() { return closingDateAfter; }
-    public void setClosingDateAfter(LocalDate closingDateAfter) { this.closingDateAfter = closingDateAfter; }
+    public void setClosingDateAfter(LocalDate closingDateAfter) { this.closingDateAfter = closingDateAfter; version++; }
     
     public String getCompany() { return company; }
-    public void setCompany(String company) { this.company = company; }
+    public void setCompany(String company) { this.company = company; version++; }
 
     public String getPreferredMajor(){return preferredMajor;}
-    public void setPreferredMajor(String preferredMajor){this.preferredMajor = preferredMajor;}
+    public void setPreferredMajor(String preferredMajor){this.preferredMajor = preferredMajor; version++;}
     
     public String getSortBy() { return sortBy; }
-    public void setSortBy(String sortBy) { this.sortBy = sortBy; }
+    public void setSortBy(String sortBy) { this.sortBy = sortBy; version++; }
     
     public boolean isSortAscending() { return sortAscending; }
-    public void setSortAscending(boolean sortAscending) { this.sortAscending = sortAscending; }
+    public void setSortAscending(boolean sortAscending) { this.sortAscending = sortAscending; version++; }
+
+    public int getVersion() { return version; }
+
+    // Immutable form of the filter for use as a map key; matching ignores case, so the strings are lowercased
+    public record Key(String status, String level, LocalDate closingDateBefore, LocalDate closingDateAfter,
+                      String company, String preferredMajor, String sortBy, boolean sortAscending) { }
+
+    public Key toKey() {
+        return new Key(normalize(status), normalize(level), closingDateBefore, closingDateAfter,
+                       normalize(company), normalize(preferredMajor), normalize(sortBy), sortAscending);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
     
 
     public boolean hasActiveFilters() {
@@ -68,6 +85,7 @@ public class InternshipFilter {
         preferredMajor = null;
         sortBy = "title";
         sortAscending = true;
+        version++;
     }
     
 
@@ -0,0 +1,38 @@
+package models;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+/**
+ * This is the level of an internship opportunity
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public enum InternshipLevel {
+    BASIC("Basic"),
+    INTERMEDIATE("Intermediate"),
+    ADVANCED("Advanced");
+
+    private static final Map<String, InternshipLevel> byLabel = new HashMap<>();
+    static {
+        for (InternshipLevel l : values()) {
+            byLabel.put(l.label.toLowerCase(Locale.ROOT), l);
+        }
+    }
+
+    private final String label;
+
+    InternshipLevel(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() { return label; }
+
+    // Case-insensitive lookup; null when the label is not a known level
+    public static InternshipLevel fromLabel(String label) {
+        return label == null ? null : byLabel.get(label.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public String toString() { return label; }
+}
@@ -1,81 +1,243 @@
 package models;
 
+import services.ApplicationChangeNotifier;
+import services.InternshipChangeNotifier;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 /**
  * This is Internship opportunity with its attributes
  * @author Dai Jiayu
  * @version 1.0
  */
 public class InternshipOpportunity {
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    private final int id;
     private String title;
     private String description;
-    private String level;
+    private InternshipLevel levelCode;
+    private String otherLevel; // only kept when the level is not one of the known levels
     private String preferredMajor;
     private LocalDate openDate;
     private LocalDate closeDate;
     private int slots;
     private String company;
-    private boolean visible = false; // visible only after staff approval
-    private String status = "Pending"; // Pending, Approved, Filled, Closed
-    private List<InternshipApplication> applications = new ArrayList<>();
+    private volatile boolean visible = false; // visible only after staff approval
+    private volatile InternshipStatus status = InternshipStatus.PENDING;
+    private volatile boolean scheduled = false; // true once a scheduler keeps applicationOpen up to date
+    private volatile boolean applicationOpen;
+    // Guarded by applicationsByStatus, like the lists grouped by status
+    private final List<InternshipApplication> applications = new ArrayList<>();
+    // Number of applications in each status, indexed by ApplicationStatus ordinal
+    private final AtomicIntegerArray applicationCounts = new AtomicIntegerArray(ApplicationStatus.values().length);
+    // Slots taken by accepted applications; only changed by compare-and-set, so it never goes past slots
+    private final AtomicInteger reservedSlots = new AtomicInteger();
+    // The same applications grouped by status, in the order they were made
+    private final Map<ApplicationStatus, Set<InternshipApplication>> applicationsByStatus = new EnumMap<>(ApplicationStatus.class);
 
     public InternshipOpportunity(String title, String description, String level,
                                  String preferredMajor, LocalDate openDate, LocalDate closeDate,
                                  int slots, String company) {
+        this.id = nextId.getAndIncrement();
         this.title = title;
         this.description = description;
-        this.level = level;
+        setLevelValue(level);
         this.preferredMajor = preferredMajor;
         this.openDate = openDate;
         this.closeDate = closeDate;
         this.slots = Math.min(slots, 10);
         this.company = company;
+        for (ApplicationStatus s : ApplicationStatus.values()) {
+            applicationsByStatus.put(s, new LinkedHashSet<>());
+        }
+    }
+
+    // Puts back a saved internship with its status and visibility, before anything has been told about it
+    public static InternshipOpportunity restore(String title, String description, String level,
+                                                String preferredMajor, LocalDate openDate, LocalDate closeDate,
+                                                int slots, String company, InternshipStatus status, boolean visible) {
+        InternshipOpportunity opp = new InternshipOpportunity(title, description, level, preferredMajor,
+                                                              openDate, closeDate, slots, company);
+        opp.status = status;
+        opp.visible = visible;
+        return opp;
     }
 
     // ===== Getters =====
+    public int getId() { return id; }
     public String getTitle() { return title; }
     public String getDescription() { return description; }
-    public String getLevel() { return level; }
+    public String getLevel() { return levelCode != null ? levelCode.getLabel() : otherLevel; }
+    public InternshipLevel getLevelCode() { return levelCode; }
     public String getPreferredMajor() { return preferredMajor; }
     public LocalDate getOpenDate() { return openDate; }
     public LocalDate getCloseDate() { return closeDate; }
     public int getSlots() { return slots; }
     public String getCompany() { return company; }
     public boolean isVisible() { return visible; }
-    public String getStatus() { return status; }
-    public List<InternshipApplication> getApplications() { return applications; }
+    public String getStatus() { return status.getLabel(); }
+    public InternshipStatus getStatusCode() { return status; }
+
+    // A copy taken under the lock, in the order the applications were made
+    public List<InternshipApplication> getApplications() {
+        synchronized (applicationsByStatus) {
+            return new ArrayList<>(applications);
+        }
+    }
+
+    // A copy of the applications currently in the given status, taken under the lock, so their status can be changed
+    // while going through it
+    public List<InternshipApplication> getApplications(ApplicationStatus status) {
+        synchronized (applicationsByStatus) {
+            return new ArrayList<>(applicationsByStatus.get(status));
+        }
+    }
 
     // ===== Setters =====
-    public void setVisible(boolean visible) { this.visible = visible; }
-    public void setStatus(String status) { this.status = status; }
+    public void setVisible(boolean visible) {
+        if (this.visible == visible) return;
+        this.visible = visible;
+        InternshipChangeNotifier.fireChanged(this);
+    }
+
+    public void setStatus(String status) {
+        InternshipStatus code = InternshipStatus.fromLabel(status);
+        if (code == null) {
+            throw new IllegalArgumentException("Unknown internship status: " + status);
+        }
+        setStatus(code);
+    }
+
+    public void setStatus(InternshipStatus status) {
+        if (this.status == status) return;
+        this.status = status;
+        InternshipChangeNotifier.fireChanged(this);
+    }
+
+    private void setLevelValue(String level) {
+        this.levelCode = InternshipLevel.fromLabel(level);
+        this.otherLevel = levelCode == null ? level : null;
+    }
 
     // ===== Application Management =====
     public void addApplication(InternshipApplication app) {
-        applications.add(app);
+        app.counted = true;
+        applicationCounts.incrementAndGet(app.getStatusCode().ordinal());
+        synchronized (applicationsByStatus) {
+            applications.add(app);
+            applicationsByStatus.get(app.getStatusCode()).add(app);
+        }
+        if (holdsSlot(app)) {
+            reservedSlots.incrementAndGet();
+        }
+        ApplicationChangeNotifier.fireAdded(app);
+    }
+
+    // Called by InternshipApplication whenever one of this internship's applications changes status
+    void applicationStatusChanged(InternshipApplication app, ApplicationStatus from, ApplicationStatus to) {
+        applicationCounts.decrementAndGet(from.ordinal());
+        applicationCounts.incrementAndGet(to.ordinal());
+        synchronized (applicationsByStatus) {
+            applicationsByStatus.get(from).remove(app);
+            applicationsByStatus.get(to).add(app);
+        }
+    }
+
+    private static boolean holdsSlot(InternshipApplication app) {
+        return app.getStatusCode() == ApplicationStatus.ACCEPTED ||
+               (app.getStatusCode() == ApplicationStatus.WITHDRAWAL_REQUESTED &&
+                app.getStatusBeforeWithdrawal() == ApplicationStatus.ACCEPTED);
     }
 
-    public int getAcceptedCount() {
-        int count = 0;
-        for (InternshipApplication a : applications) {
-            if ("Accepted".equalsIgnoreCase(a.getStatus())) count++;
+    // Takes one slot if any is left; acceptance must succeed here before an application becomes Accepted
+    public boolean tryReserveSlot() {
+        while (true) {
+            int taken = reservedSlots.get();
+            if (taken >= slots) {
+                return false;
+            }
+            if (reservedSlots.compareAndSet(taken, taken + 1)) {
+                return true;
+            }
         }
-        return count;
+    }
+
+    // Gives back a slot when an accepted application leaves the Accepted status
+    public void releaseSlot() {
+        reservedSlots.updateAndGet(taken -> Math.max(0, taken - 1));
+    }
+
+    public int getApplicationCount(ApplicationStatus status) {
+        return applicationCounts.get(status.ordinal());
+    }
+
+    public int getAcceptedCount() { return getApplicationCount(ApplicationStatus.ACCEPTED); }
+    public int getOfferedCount() { return getApplicationCount(ApplicationStatus.OFFERED); }
+    public int getPendingCount() { return getApplicationCount(ApplicationStatus.PENDING); }
+
+    // Recounts the applications and compares with the kept counts; prints any difference found
+    public boolean checkApplicationCounts() {
+        int[] recount = new int[applicationCounts.length()];
+        int holdingSlots = 0;
+        for (InternshipApplication a : getApplications()) {
+            recount[a.getStatusCode().ordinal()]++;
+            if (holdsSlot(a)) holdingSlots++;
+        }
+        boolean consistent = true;
+        for (ApplicationStatus s : ApplicationStatus.values()) {
+            int bucketSize;
+            synchronized (applicationsByStatus) {
+                bucketSize = applicationsByStatus.get(s).size();
+            }
+            if (recount[s.ordinal()] != applicationCounts.get(s.ordinal()) || recount[s.ordinal()] != bucketSize) {
+                System.out.println("Internship '" + title + "': " + s + " count is " + applicationCounts.get(s.ordinal()) +
+                                   " and its list holds " + bucketSize + ", but " + recount[s.ordinal()] +
+                                   " applications have that status.");
+                consistent = false;
+            }
+        }
+        if (reservedSlots.get() != holdingSlots) {
+            System.out.println("Internship '" + title + "': " + reservedSlots.get() + " slots reserved for " +
+                               holdingSlots + " accepted applications.");
+            consistent = false;
+        }
+        return consistent;
     }
 
     public int getSlotsLeft() {
-        return Math.max(0, slots - getAcceptedCount());
+        return Math.max(0, slots - reservedSlots.get());
     }
 
     public boolean isApplicationOpen() {
+        if (scheduled) {
+            return applicationOpen;
+        }
         LocalDate today = LocalDate.now();
         return (!today.isBefore(openDate)) && (!today.isAfter(closeDate));
     }
 
-    public void checkAndSetFilled() {
-        if (getSlotsLeft() <= 0 && !"Filled".equalsIgnoreCase(status)) {
-            setStatus("Filled");
+    // Set by InternshipScheduler when the application window opens or closes; only a flag that differs from what
+    // isApplicationOpen() already said counts as a change
+    public void setApplicationOpen(boolean open) {
+        boolean changed = isApplicationOpen() != open;
+        this.scheduled = true;
+        this.applicationOpen = open;
+        if (changed) {
+            InternshipChangeNotifier.fireChanged(this);
+        }
+    }
+
+    public synchronized void checkAndSetFilled() {
+        if (getSlotsLeft() <= 0 && status != InternshipStatus.FILLED) {
+            setStatus(InternshipStatus.FILLED);
             setVisible(false);
             System.out.println("Internship '" + title + "' is now filled.");
         }
@@ -84,14 +246,8 @@ public class InternshipOpportunity {
     // ===== Editing (Only before approval) =====
     public boolean editDetails(String newTitle, String newDesc, String newLevel,
                                String newMajor, LocalDate newOpen, LocalDate newClose, int newSlots) {
-        if ("Pending".equalsIgnoreCase(status)) {
-            this.title = newTitle;
-            this.description = newDesc;
-            this.level = newLevel;
-            this.preferredMajor = newMajor;
-            this.openDate = newOpen;
-            this.closeDate = newClose;
-            this.slots = Math.min(newSlots, 10);
+        if (status == InternshipStatus.PENDING) {
+            setDetails(newTitle, newDesc, newLevel, newMajor, newOpen, newClose, newSlots);
             System.out.println("Internship details updated successfully!");
             return true;
         } else {
@@ -100,10 +256,27 @@ public class InternshipOpportunity {
         }
     }
 
+    // Replaces the details without the approval check or any message; editDetails is what the menus use
+    public void setDetails(String newTitle, String newDesc, String newLevel,
+                           String newMajor, LocalDate newOpen, LocalDate newClose, int newSlots) {
+        this.title = newTitle;
+        this.description = newDesc;
+        setLevelValue(newLevel);
+        this.preferredMajor = newMajor;
+        if (!Objects.equals(newOpen, openDate) || !Objects.equals(newClose, closeDate)) {
+            this.scheduled = false; // the scheduler's flag was for the old dates
+        }
+        this.openDate = newOpen;
+        this.closeDate = newClose;
+        this.slots = Math.min(newSlots, 10);
+        InternshipChangeNotifier.fireChanged(this);
+    }
+
     // ===== Toggle Visibility =====
     public void toggleVisibility() {
-        if ("Approved".equalsIgnoreCase(status)) {
+        if (status == InternshipStatus.APPROVED) {
             this.visible = !this.visible;
+            InternshipChangeNotifier.fireChanged(this);
             System.out.println("Internship '" + title + "' visibility set to: " + (visible ? "Visible" : "Hidden"));
         } else {
             System.out.println("Visibility can only be toggled after staff approval.");
@@ -114,7 +287,7 @@ public class InternshipOpportunity {
     public void displayInfo() {
         System.out.println("\nTitle: " + title);
         System.out.println("Description: " + description);
-        System.out.println("Level: " + level);
+        System.out.println("Level: " + getLevel());
         System.out.println("Preferred Major: " + preferredMajor);
         System.out.println("Open Date: " + openDate + " | Close Date: " + closeDate);
         System.out.println("Slots: " + slots + " | Company: " + company);
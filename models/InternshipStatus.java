@@ -0,0 +1,40 @@
+package models;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+/**
+ * This is the status an internship opportunity can be in
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public enum InternshipStatus {
+    PENDING("Pending"),
+    APPROVED("Approved"),
+    REJECTED("Rejected"),
+    FILLED("Filled"),
+    CLOSED("Closed");
+
+    private static final Map<String, InternshipStatus> byLabel = new HashMap<>();
+    static {
+        for (InternshipStatus s : values()) {
+            byLabel.put(s.label.toLowerCase(Locale.ROOT), s);
+        }
+    }
+
+    private final String label;
+
+    InternshipStatus(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() { return label; }
+
+    // Case-insensitive lookup; null when the label is not a known status
+    public static InternshipStatus fromLabel(String label) {
+        return label == null ? null : byLabel.get(label.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public String toString() { return label; }
+}
@@ -3,6 +3,7 @@ package models;
 import interfaces.StudentActions;
 import interfaces.InternshipViewer;
 import interfaces.InternshipFilterService;
+import services.ApplicationChangeNotifier;
 import services.ApplicationService;
 import services.InternshipViewerService;
 import services.FilterManagementService;
@@ -88,7 +89,7 @@ public class Student extends User implements StudentActions, InternshipViewer {
         System.out.println("\n=== Available Internships ===");
         boolean found = false;
         for (InternshipOpportunity i : internships) {
-            if (i.isVisible() && i.getStatus().equalsIgnoreCase("Approved")) {
+            if (i.isVisible() && i.getStatusCode() == InternshipStatus.APPROVED) {
                 i.displayInfo();
                 found = true;
             }
@@ -128,6 +129,7 @@ public class Student extends User implements StudentActions, InternshipViewer {
     public void removeApplication(InternshipApplication app) {
         applications.remove(app);
         if (acceptedInternship == app) acceptedInternship = null;
+        ApplicationChangeNotifier.fireRemoved(app);
         System.out.println("Application removed for internship: " + app.getInternship().getTitle());
     }
 
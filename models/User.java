@@ -1,22 +1,73 @@
 package models;
+
+import services.UserChangeNotifier;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
 /**
- * This is user class which is parent class to other type of users and provide basic functions such as login
+ * This is user class which is parent class to other type of users and provide basic functions such as login.
+ * Only a salted hash of a changed password is kept, so nothing saved to disk holds the password itself
  * @author Dai Jiayu
  * @version 1.0
  */
 public abstract class User {
+    private static final String DEFAULT_PASSWORD = "password";
+    private static final String HASH_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int HASH_ITERATIONS = 100_000;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom random = new SecureRandom();
+
     protected String userID;
     protected String name;
-    protected String password;
+    // "iterations$salt$hash" in Base64, or null while the user still has the default password
+    private String passwordHash;
 
     public User(String userID, String name) {
         this.userID = userID;
         this.name = name;
-        this.password = "password";
     }
 
     public boolean login(String userID, String password) {
-        return this.userID.equals(userID) && this.password.equals(password);
+        return this.userID.equals(userID) && matchesPassword(password);
+    }
+
+    private boolean matchesPassword(String password) {
+        if (password == null) return false;
+        if (passwordHash == null) {
+            return DEFAULT_PASSWORD.equals(password);
+        }
+        String[] parts = passwordHash.split("\\$");
+        if (parts.length != 3) return false;
+        try {
+            byte[] salt = Base64.getDecoder().decode(parts[1]);
+            byte[] expected = Base64.getDecoder().decode(parts[2]);
+            return MessageDigest.isEqual(expected, hash(password, salt, Integer.parseInt(parts[0])));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String hashPassword(String password) {
+        byte[] salt = new byte[16];
+        random.nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder();
+        return HASH_ITERATIONS + "$" + base64.encodeToString(salt) + "$" +
+               base64.encodeToString(hash(password, salt, HASH_ITERATIONS));
+    }
+
+    private static byte[] hash(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(HASH_ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            throw new IllegalStateException("Password hashing is not available: " + e.getMessage(), e);
+        } finally {
+            spec.clearPassword();
+        }
     }
 
     public void logout() {
@@ -24,10 +75,15 @@ public abstract class User {
     }
 
     public void changePassword(String newPassword) {
-        this.password = newPassword;
+        this.passwordHash = hashPassword(newPassword);
+        UserChangeNotifier.firePasswordChanged(this);
         System.out.println("Password changed successfully.");
     }
 
+    // Only for saving and restoring users; changePassword is what the menus use. Null stands for the default password
+    public String getPasswordHash() { return passwordHash; }
+    public void setPasswordHash(String passwordHash) { this.passwordHash = passwordHash; }
+
     public String getUserID() { return userID; }
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
@@ -0,0 +1,43 @@
+package services;
+
+import interfaces.ApplicationChangeListener;
+import models.ApplicationStatus;
+import models.InternshipApplication;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+/**
+ * This is to pass changes to applications on to whatever keeps a record of them
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class ApplicationChangeNotifier {
+    private static final List<ApplicationChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public static void addListener(ApplicationChangeListener listener) {
+        if (listener != null && !listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    public static void removeListener(ApplicationChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    public static void fireAdded(InternshipApplication app) {
+        for (ApplicationChangeListener l : listeners) {
+            l.applicationAdded(app);
+        }
+    }
+
+    public static void fireStatusChanged(InternshipApplication app, ApplicationStatus from, ApplicationStatus to) {
+        for (ApplicationChangeListener l : listeners) {
+            l.applicationStatusChanged(app, from, to);
+        }
+    }
+
+    public static void fireRemoved(InternshipApplication app) {
+        for (ApplicationChangeListener l : listeners) {
+            l.applicationRemoved(app);
+        }
+    }
+}
@@ -3,6 +3,9 @@ package services;
 import models.Student;
 import models.InternshipOpportunity;
 import models.InternshipApplication;
+import models.ApplicationStatus;
+import models.InternshipLevel;
+import models.InternshipStatus;
 import java.util.ArrayList;
 /**
  * This is Application service that handles information of matched internship application related functions
@@ -17,7 +20,7 @@ public class ApplicationService {
     }
     
     public void applyForInternship(InternshipOpportunity opp) {
-        if (!opp.isVisible() || !opp.getStatus().equalsIgnoreCase("Approved")) {
+        if (!opp.isVisible() || opp.getStatusCode() != InternshipStatus.APPROVED) {
             System.out.println("Cannot apply: internship is not open for applications.");
             return;
         }
@@ -29,7 +32,7 @@ public class ApplicationService {
             System.out.println("Cannot apply for more than 3 internships at once.");
             return;
         }
-        if ((student.getYear() == 1 || student.getYear() == 2) && !opp.getLevel().equalsIgnoreCase("Basic")) {
+        if ((student.getYear() == 1 || student.getYear() == 2) && opp.getLevelCode() != InternshipLevel.BASIC) {
             System.out.println("Year 1 and 2 students may only apply for Basic-level internships.");
             return;
         }
@@ -50,19 +53,29 @@ public class ApplicationService {
             System.out.println("You did not apply for this internship.");
             return;
         }
-        if (!"Offered".equalsIgnoreCase(app.getStatus())) {
+        if (app.getStatusCode() != ApplicationStatus.OFFERED) {
             System.out.println("Only 'Offered' applications can be accepted.");
             return;
         }
 
+        // The slot is reserved atomically, so two students cannot both take the last one
+        try {
+            if (!app.accept()) {
+                System.out.println("Cannot accept: all slots for this internship have been taken.");
+                return;
+            }
+        } catch (IllegalStateException e) {
+            System.out.println("Cannot accept: " + e.getMessage());
+            return;
+        }
         student.setAcceptedInternship(app);
-        app.setStatus("Accepted");
         System.out.println("You accepted: " + app.getInternship().getTitle());
+        app.getInternship().checkAndSetFilled();
 
         // Auto-reject other offers
         for (InternshipApplication other : new ArrayList<>(student.getAppliedInternships())) {
-            if (other != app && "Offered".equalsIgnoreCase(other.getStatus())) {
-                other.setStatus("Rejected");
+            if (other != app && other.getStatusCode() == ApplicationStatus.OFFERED) {
+                other.setStatus(ApplicationStatus.REJECTED);
                 System.out.println("Auto-rejected: " + other.getInternship().getTitle());
             }
         }
@@ -73,12 +86,20 @@ public class ApplicationService {
             System.out.println("Application not found.");
             return;
         }
-        if ("Withdrawn".equalsIgnoreCase(app.getStatus())) {
+        if (app.getStatusCode() == ApplicationStatus.WITHDRAWN) {
             System.out.println("Already withdrawn.");
             return;
         }
-        app.setWithdrawRequested(true);
-        app.setStatus("Withdrawal Requested");
+        if (app.getStatusCode() == ApplicationStatus.WITHDRAWAL_REQUESTED) {
+            System.out.println("A withdrawal request is already waiting for approval.");
+            return;
+        }
+        if (!app.getStatusCode().canMoveTo(ApplicationStatus.WITHDRAWAL_REQUESTED)) {
+            System.out.println("Cannot request withdrawal from a " + app.getStatus() + " application.");
+            return;
+        }
+        app.requestWithdrawal();
+        WithdrawalQueue.push(app);
         System.out.println("Withdrawal request submitted for: " + app.getInternship().getTitle());
     }
 
@@ -0,0 +1,92 @@
+package services;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+/**
+ * This is a queue of things waiting for staff approval, kept in the order they were submitted, with how long
+ * the oldest one has been waiting
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class ApprovalQueue<T> {
+    private final Clock clock;
+    // Insertion order is submission order, and an item can be taken out from the middle in O(1)
+    private final LinkedHashMap<T, Instant> submitted = new LinkedHashMap<>();
+
+    public ApprovalQueue() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public ApprovalQueue(Clock clock) {
+        this.clock = clock;
+    }
+
+    // Something submitted again keeps its place and its original submission time
+    public synchronized void submit(T item) {
+        submitted.putIfAbsent(item, clock.instant());
+    }
+
+    // Puts an item back with the time it was first submitted, behind everything already waiting
+    public synchronized void restore(T item, Instant submittedAt) {
+        submitted.remove(item);
+        submitted.put(item, submittedAt);
+    }
+
+    public synchronized boolean remove(T item) {
+        return submitted.remove(item) != null;
+    }
+
+    public synchronized boolean contains(T item) {
+        return submitted.containsKey(item);
+    }
+
+    public synchronized int size() {
+        return submitted.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return submitted.isEmpty();
+    }
+
+    // Copy of everything waiting, oldest first
+    public synchronized List<T> getPending() {
+        return new ArrayList<>(submitted.keySet());
+    }
+
+    public synchronized Instant getSubmittedAt(T item) {
+        return submitted.get(item);
+    }
+
+    // How long the oldest item has been waiting; zero when nothing is waiting
+    public synchronized Duration getOldestAge() {
+        Iterator<Instant> it = submitted.values().iterator();
+        if (!it.hasNext()) return Duration.ZERO;
+        return Duration.between(it.next(), clock.instant());
+    }
+
+    public synchronized Duration getAge(T item) {
+        Instant at = submitted.get(item);
+        return at == null ? Duration.ZERO : Duration.between(at, clock.instant());
+    }
+
+    public synchronized void clear() {
+        submitted.clear();
+    }
+
+    // Short form for the menus, e.g. "2d 3h", "3h 15m" or "4m"
+    public static String formatAge(Duration age) {
+        long minutes = age.toMinutes();
+        if (minutes >= 24 * 60) {
+            return (minutes / (24 * 60)) + "d " + (minutes / 60 % 24) + "h";
+        }
+        if (minutes >= 60) {
+            return (minutes / 60) + "h " + (minutes % 60) + "m";
+        }
+        return minutes + "m";
+    }
+}
@@ -0,0 +1,74 @@
+package services;
+
+import interfaces.InternshipChangeListener;
+import models.CompanyRepresentative;
+import models.InternshipOpportunity;
+import models.InternshipStatus;
+/**
+ * This is the staff backlog: company representatives waiting for their account to be approved and internships
+ * waiting to be approved or rejected, each in the order they were submitted
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class ApprovalQueues {
+    private static final ApprovalQueue<CompanyRepresentative> representatives = new ApprovalQueue<>();
+    private static final ApprovalQueue<InternshipOpportunity> internships = new ApprovalQueue<>();
+
+    static {
+        // Internships join the queue while they are Pending and leave it on approval, rejection or deletion
+        InternshipChangeNotifier.addListener(new InternshipChangeListener() {
+            @Override
+            public void internshipAdded(InternshipOpportunity opp) {
+                refresh(opp);
+            }
+
+            @Override
+            public void internshipChanged(InternshipOpportunity opp) {
+                refresh(opp);
+            }
+
+            @Override
+            public void internshipRemoved(InternshipOpportunity opp) {
+                internships.remove(opp);
+            }
+        });
+        // Anything created before this class was first used
+        for (InternshipOpportunity opp : InternshipCatalog.getByStatus(InternshipStatus.PENDING)) {
+            internships.submit(opp);
+        }
+    }
+
+    public static ApprovalQueue<CompanyRepresentative> representatives() {
+        return representatives;
+    }
+
+    public static ApprovalQueue<InternshipOpportunity> internships() {
+        return internships;
+    }
+
+    // Called when a representative registers or loses approval, and when one is approved
+    public static void representativeChanged(CompanyRepresentative rep) {
+        if (rep.isApproved()) {
+            representatives.remove(rep);
+        } else {
+            representatives.submit(rep);
+        }
+    }
+
+    private static void refresh(InternshipOpportunity opp) {
+        if (opp.getStatusCode() == InternshipStatus.PENDING && InternshipCatalog.getRepresentative(opp) != null) {
+            internships.submit(opp);
+        } else {
+            internships.remove(opp);
+        }
+    }
+
+    public static void printBacklog() {
+        System.out.println("Representatives awaiting approval: " + representatives.size() +
+                           (representatives.isEmpty() ? "" : " (oldest waiting " +
+                            ApprovalQueue.formatAge(representatives.getOldestAge()) + ")"));
+        System.out.println("Internships awaiting approval: " + internships.size() +
+                           (internships.isEmpty() ? "" : " (oldest waiting " +
+                            ApprovalQueue.formatAge(internships.getOldestAge()) + ")"));
+    }
+}
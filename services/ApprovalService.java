@@ -3,6 +3,10 @@ package services;
 import models.CompanyRepresentative;
 import models.InternshipOpportunity;
 import models.InternshipApplication;
+import models.ApplicationStatus;
+import models.InternshipStatus;
+import java.util.ArrayList;
+import java.util.List;
 /**
  * This is for approving of internship application service
  * @author Dai Jiayu
@@ -20,33 +24,61 @@ public class ApprovalService {
     }
     
     public void approveInternship(InternshipOpportunity opp) {
-        if ("Approved".equalsIgnoreCase(opp.getStatus())) {
+        if (opp.getStatusCode() == InternshipStatus.APPROVED) {
             System.out.println("Internship '" + opp.getTitle() + "' is already approved.");
             return;
         }
-        opp.setStatus("Approved");
+        opp.setStatus(InternshipStatus.APPROVED);
         opp.setVisible(true);
         System.out.println("Approved internship: " + opp.getTitle() + " | Company: " + opp.getCompany());
     }
     
     public void rejectInternship(InternshipOpportunity opp) {
-        opp.setStatus("Rejected");
+        opp.setStatus(InternshipStatus.REJECTED);
         opp.setVisible(false);
         System.out.println("Rejected internship: " + opp.getTitle() + " | Company: " + opp.getCompany());
     }
     
     public void approveWithdrawal(InternshipApplication app) {
-        if ("Withdrawn".equalsIgnoreCase(app.getStatus())) {
+        if (app.getStatusCode() == ApplicationStatus.WITHDRAWN) {
             System.out.println("Application is already withdrawn.");
             return;
         }
+        if (app.getStatusCode() != ApplicationStatus.WITHDRAWAL_REQUESTED) {
+            System.out.println("No withdrawal was requested for this application.");
+            return;
+        }
+        WithdrawalQueue.remove(app);
         app.withdraw();
         System.out.println("Withdrawal approved for student: " + app.getStudent().getName()
                 + " | Internship: " + app.getInternship().getTitle());
     }
+
+    // Turns the request down; the application goes back to the status it had before
+    public void rejectWithdrawal(InternshipApplication app) {
+        if (app.getStatusCode() != ApplicationStatus.WITHDRAWAL_REQUESTED) {
+            System.out.println("No withdrawal was requested for this application.");
+            return;
+        }
+        WithdrawalQueue.remove(app);
+        app.cancelWithdrawalRequest();
+    }
+
+    // Approves up to count of the oldest waiting requests and returns the applications that were withdrawn
+    public List<InternshipApplication> approveOldestWithdrawals(int count) {
+        List<InternshipApplication> approved = new ArrayList<>();
+        while (approved.size() < count) {
+            InternshipApplication app = WithdrawalQueue.pollOldest();
+            if (app == null) break;
+            if (app.getStatusCode() != ApplicationStatus.WITHDRAWAL_REQUESTED) continue; // no longer waiting
+            approveWithdrawal(app);
+            approved.add(app);
+        }
+        return approved;
+    }
     
     public void toggleInternshipVisibility(InternshipOpportunity opp) {
-        if (!"Approved".equalsIgnoreCase(opp.getStatus())) {
+        if (opp.getStatusCode() != InternshipStatus.APPROVED) {
             System.out.println("Cannot toggle visibility for unapproved internship.");
             return;
         }
@@ -0,0 +1,199 @@
+package services;
+
+import interfaces.InternshipFilterService;
+import models.InternshipOpportunity;
+import models.InternshipFilter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+/**
+ * This is to keep the results of recent filterInternships calls, so students running the same filter
+ * do not recompute it. Pages are cut from the same cached results. Results are kept only for the whole catalog
+ * and for selections, which name their own scope; any other list goes straight to the delegate. Everything
+ * cached is dropped as soon as any internship changes
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class CachingInternshipFilterService implements InternshipFilterService {
+    public static final int DEFAULT_CAPACITY = 256;
+    private static final String WHOLE_CATALOG = "catalog";
+
+    private final InternshipFilterService delegate;
+    private final int capacity;
+    private final Map<CacheKey, List<InternshipOpportunity>> results;
+    private long catalogVersion = InternshipChangeNotifier.getVersion();
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long invalidations = 0;
+
+    public CachingInternshipFilterService(InternshipFilterService delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    public CachingInternshipFilterService(InternshipFilterService delegate, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        this.delegate = delegate;
+        this.capacity = capacity;
+        // Access order, so the least recently used result is the one evicted
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, List<InternshipOpportunity>> eldest) {
+                if (size() > CachingInternshipFilterService.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public List<InternshipOpportunity> filterInternships(List<InternshipOpportunity> internships, InternshipFilter filter) {
+        if (internships == null || internships.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String scope = scopeOf(internships);
+        if (scope == null) {
+            return delegate.filterInternships(internships, filter);
+        }
+        return new ArrayList<>(results(internships, filter, scope));
+    }
+
+    // Only the page asked for is copied out of the cached results
+    @Override
+    public InternshipPage filterInternshipsPage(List<InternshipOpportunity> internships, InternshipFilter filter,
+                                                int pageSize, String continuationToken) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        int[] position = InternshipPage.decodeToken(continuationToken);
+        if (internships == null || internships.isEmpty()) {
+            return new InternshipPage(new ArrayList<>(), 0, null);
+        }
+        String scope = scopeOf(internships);
+        if (scope == null) {
+            return delegate.filterInternshipsPage(internships, filter, pageSize, continuationToken);
+        }
+
+        List<InternshipOpportunity> all = results(internships, filter, scope);
+        int from = resumeAt(all, position[0], position[1]);
+        int to = Math.min(all.size(), from + pageSize);
+        List<InternshipOpportunity> items = new ArrayList<>(all.subList(from, to));
+        String next = items.isEmpty() || to >= all.size() ? null
+                : InternshipPage.encodeToken(to, items.get(items.size() - 1).getId());
+        return new InternshipPage(items, all.size(), next);
+    }
+
+    // Where the next page starts: just after the last internship returned, or at the offset when it is gone
+    private static int resumeAt(List<InternshipOpportunity> all, int offset, int lastId) {
+        if (lastId >= 0 && !(offset > 0 && offset <= all.size() && all.get(offset - 1).getId() == lastId)) {
+            for (int i = 0; i < all.size(); i++) {
+                if (all.get(i).getId() == lastId) return i + 1;
+            }
+        }
+        return Math.min(offset, all.size());
+    }
+
+    // The whole result for this filter over these internships; the cached list itself, so it must not be changed
+    private List<InternshipOpportunity> results(List<InternshipOpportunity> internships, InternshipFilter filter,
+                                                String scope) {
+        CacheKey key = new CacheKey(filter.toKey(), scope);
+
+        synchronized (this) {
+            dropIfStale();
+            List<InternshipOpportunity> cached = results.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        long versionBefore = InternshipChangeNotifier.getVersion();
+        List<InternshipOpportunity> computed = delegate.filterInternships(internships, filter);
+        synchronized (this) {
+            // Only keep the result if no internship changed while it was being computed
+            dropIfStale();
+            if (versionBefore == catalogVersion) {
+                results.put(key, new ArrayList<>(computed));
+            }
+        }
+        return computed;
+    }
+
+    @Override
+    public List<String> getAvailableLevels(List<InternshipOpportunity> internships) {
+        return delegate.getAvailableLevels(internships);
+    }
+
+    @Override
+    public List<String> getAvailableCompanies(List<InternshipOpportunity> internships) {
+        return delegate.getAvailableCompanies(internships);
+    }
+
+    @Override
+    public List<String> getAvailableStatuses(List<InternshipOpportunity> internships) {
+        return delegate.getAvailableStatuses(internships);
+    }
+
+    @Override
+    public List<String> getAvailablePreferredMajors(List<InternshipOpportunity> internships) {
+        return delegate.getAvailablePreferredMajors(internships);
+    }
+
+    @Override
+    public InternshipFacets getFacets(List<InternshipOpportunity> internships, InternshipFilter relativeTo) {
+        return delegate.getFacets(internships, relativeTo);
+    }
+
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+    public synchronized long getInvalidations() { return invalidations; }
+    public synchronized int size() { return results.size(); }
+    public int getCapacity() { return capacity; }
+
+    public synchronized void clear() {
+        results.clear();
+    }
+
+    public synchronized void printCacheStats() {
+        long lookups = hits + misses;
+        System.out.println("\n=== Filter Cache Statistics ===");
+        System.out.println("Cached results: " + results.size() + "/" + capacity);
+        System.out.println("Hits: " + hits + " | Misses: " + misses +
+                           " | Hit rate: " + (lookups == 0 ? 0 : hits * 100 / lookups) + "%");
+        System.out.println("Evictions: " + evictions + " | Invalidations: " + invalidations);
+    }
+
+    // Called with the lock held; the whole cache goes once the catalog version moves on
+    private void dropIfStale() {
+        long current = InternshipChangeNotifier.getVersion();
+        if (current != catalogVersion) {
+            if (!results.isEmpty()) {
+                invalidations++;
+                results.clear();
+            }
+            catalogVersion = current;
+        }
+    }
+
+    // The same filter over a different set of internships is a different result, so the scope is part of the key.
+    // Null for a list that does not name its scope, which is not cached
+    private static String scopeOf(List<InternshipOpportunity> internships) {
+        if (InternshipCatalog.isWholeCatalog(internships)) {
+            return WHOLE_CATALOG;
+        }
+        if (internships instanceof InternshipSelection) {
+            return ((InternshipSelection) internships).getScopeKey();
+        }
+        return null;
+    }
+
+    private record CacheKey(InternshipFilter.Key filter, String scope) { }
+}
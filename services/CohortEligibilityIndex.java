@@ -0,0 +1,129 @@
+package services;
+
+import interfaces.InternshipChangeListener;
+import models.InternshipLevel;
+import models.InternshipOpportunity;
+import models.InternshipStatus;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+/**
+ * This is to keep, for each (major, year) group of students, the ids of the approved and visible internships
+ * they are eligible for. A group's view is built the first time a student from it asks and is then kept up to
+ * date as internships change
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class CohortEligibilityIndex implements InternshipChangeListener {
+    private final Map<Integer, InternshipOpportunity> byId = new HashMap<>();
+    private final Map<String, Cohort> cohorts = new HashMap<>();
+
+    public CohortEligibilityIndex() {
+        for (InternshipOpportunity opp : InternshipCatalog.getAll()) {
+            byId.put(opp.getId(), opp);
+        }
+        InternshipChangeNotifier.addListener(this);
+    }
+
+    // Ids of the internships students of this major and year may apply for, not yet checked against today's date
+    public synchronized BitSet eligibleFor(String major, int year) {
+        String key = cohortKey(major, year);
+        Cohort cohort = cohorts.get(key);
+        if (cohort == null) {
+            cohort = new Cohort(major, year);
+            for (InternshipOpportunity opp : byId.values()) {
+                cohort.refresh(opp);
+            }
+            cohorts.put(key, cohort);
+        }
+        return (BitSet) cohort.ids.clone();
+    }
+
+    public synchronized InternshipOpportunity get(int id) {
+        return byId.get(id);
+    }
+
+    public synchronized int cohortCount() {
+        return cohorts.size();
+    }
+
+    public static boolean isEligible(InternshipOpportunity opp, String major, int year) {
+        return opp.isVisible() && opp.getStatusCode() == InternshipStatus.APPROVED &&
+               isMajorMatch(opp, major) && isLevelEligible(opp, year);
+    }
+
+    public static boolean isMajorMatch(InternshipOpportunity internship, String major) {
+        String preferredMajor = internship.getPreferredMajor();
+        return preferredMajor == null || preferredMajor.isEmpty() ||
+               preferredMajor.equalsIgnoreCase(major);
+    }
+
+    public static boolean isLevelEligible(InternshipOpportunity internship, int studentYear) {
+        InternshipLevel level = internship.getLevelCode();
+
+        if (level == null) {
+            return true; // If no level specified, or not a known level, assume eligible
+        }
+
+        // Level eligibility rules:
+        switch (level) {
+            case INTERMEDIATE:
+                // Intermediate level: Year 3-4 only
+                return studentYear >= 3;
+            case ADVANCED:
+                // Advanced level: Year 4 only
+                return studentYear == 4;
+            case BASIC:
+            default:
+                // Basic level: Open to all years (1-4)
+                return true;
+        }
+    }
+
+    static String cohortKey(String major, int year) {
+        return (major == null ? "" : major.toLowerCase(Locale.ROOT)) + '\u0000' + year;
+    }
+
+    private void refresh(InternshipOpportunity opp) {
+        for (Cohort cohort : cohorts.values()) {
+            cohort.refresh(opp);
+        }
+    }
+
+    // InternshipChangeListener implementation
+    @Override
+    public synchronized void internshipAdded(InternshipOpportunity opp) {
+        byId.put(opp.getId(), opp);
+        refresh(opp);
+    }
+
+    @Override
+    public synchronized void internshipChanged(InternshipOpportunity opp) {
+        if (!byId.containsKey(opp.getId())) return;
+        refresh(opp);
+    }
+
+    @Override
+    public synchronized void internshipRemoved(InternshipOpportunity opp) {
+        if (byId.remove(opp.getId()) == null) return;
+        for (Cohort cohort : cohorts.values()) {
+            cohort.ids.clear(opp.getId());
+        }
+    }
+
+    private static final class Cohort {
+        private final String major;
+        private final int year;
+        private final BitSet ids = new BitSet();
+
+        private Cohort(String major, int year) {
+            this.major = major;
+            this.year = year;
+        }
+
+        private void refresh(InternshipOpportunity opp) {
+            ids.set(opp.getId(), isEligible(opp, major, year));
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 /**
  * This is to manager filter service with different categories
@@ -45,11 +46,11 @@ public class FilterManagementService implements FilterManager {
             String choice = sc.nextLine().trim();
             
             switch (choice) {
-                case "1" -> setStatusFilter(currentFilter, filterService.getAvailableStatuses(allInternships));
-                case "2" -> setLevelFilter(currentFilter, filterService.getAvailableLevels(allInternships));
+                case "1" -> setStatusFilter(currentFilter, filterService.getFacets(allInternships, currentFilter).getStatuses());
+                case "2" -> setLevelFilter(currentFilter, filterService.getFacets(allInternships, currentFilter).getLevels());
                 case "3" -> setDateFilter(currentFilter);
-                case "4" -> setCompanyFilter(currentFilter, filterService.getAvailableCompanies(allInternships));
-                case "5" -> setPreferredMajorFilter(currentFilter, filterService.getAvailablePreferredMajors(allInternships));
+                case "4" -> setCompanyFilter(currentFilter, filterService.getFacets(allInternships, currentFilter).getCompanies());
+                case "5" -> setPreferredMajorFilter(currentFilter, filterService.getFacets(allInternships, currentFilter).getPreferredMajors());
                 case "6" -> setSorting(currentFilter);
                 case "7" -> { 
                     System.out.println("Filters applied successfully!");
@@ -65,13 +66,14 @@ public class FilterManagementService implements FilterManager {
         }
     }
     
-    private void setStatusFilter(InternshipFilter filter, List<String> availableStatuses) {
+    private void setStatusFilter(InternshipFilter filter, Map<String, Integer> counts) {
         Scanner sc = new Scanner(System.in);
+        List<String> availableStatuses = new ArrayList<>(counts.keySet());
         System.out.println("\n=== Filter by Status ===");
         System.out.println("Available Statuses:");
         System.out.println("0. Clear status filter");
         for (int i = 0; i < availableStatuses.size(); i++) {
-            System.out.println((i + 1) + ". " + availableStatuses.get(i));
+            System.out.println((i + 1) + ". " + availableStatuses.get(i) + " (" + counts.get(availableStatuses.get(i)) + ")");
         }
         System.out.print("Select status (0 to clear): ");
         
@@ -92,13 +94,14 @@ public class FilterManagementService implements FilterManager {
     }
     
 
-    private void setLevelFilter(InternshipFilter filter, List<String> availableLevels) {
+    private void setLevelFilter(InternshipFilter filter, Map<String, Integer> counts) {
         Scanner sc = new Scanner(System.in);
+        List<String> availableLevels = new ArrayList<>(counts.keySet());
         System.out.println("\n=== Filter by Level ===");
         System.out.println("Available Levels:");
         System.out.println("0. Clear level filter");
         for (int i = 0; i < availableLevels.size(); i++) {
-            System.out.println((i + 1) + ". " + availableLevels.get(i));
+            System.out.println((i + 1) + ". " + availableLevels.get(i) + " (" + counts.get(availableLevels.get(i)) + ")");
         }
         System.out.print("Select level (0 to clear): ");
         
@@ -151,13 +154,14 @@ public class FilterManagementService implements FilterManager {
         }
     }
     
-    private void setCompanyFilter(InternshipFilter filter, List<String> availableCompanies) {
+    private void setCompanyFilter(InternshipFilter filter, Map<String, Integer> counts) {
         Scanner sc = new Scanner(System.in);
+        List<String> availableCompanies = new ArrayList<>(counts.keySet());
         System.out.println("\n=== Filter by Company ===");
         System.out.println("Available Companies:");
         System.out.println("0. Clear company filter");
         for (int i = 0; i < availableCompanies.size(); i++) {
-            System.out.println((i + 1) + ". " + availableCompanies.get(i));
+            System.out.println((i + 1) + ". " + availableCompanies.get(i) + " (" + counts.get(availableCompanies.get(i)) + ")");
         }
         System.out.print("Select company (0 to clear): ");
         
@@ -177,13 +181,14 @@ public class FilterManagementService implements FilterManager {
         }
     }
 
-    private void setPreferredMajorFilter(InternshipFilter filter, List<String> availableMajors) {
+    private void setPreferredMajorFilter(InternshipFilter filter, Map<String, Integer> counts) {
         Scanner sc = new Scanner(System.in);
+        List<String> availableMajors = new ArrayList<>(counts.keySet());
         System.out.println("\n=== Filter by Preferred Major ===");
         System.out.println("Available Preferred Majors:");
         System.out.println("0. Clear preferred major filter");
         for (int i = 0; i < availableMajors.size(); i++) {
-            System.out.println((i + 1) + ". " + availableMajors.get(i));
+            System.out.println((i + 1) + ". " + availableMajors.get(i) + " (" + counts.get(availableMajors.get(i)) + ")");
         }
         System.out.print("Select preferred major (0 to clear): ");
         
@@ -0,0 +1,121 @@
+package services;
+
+import models.InternshipOpportunity;
+import models.InternshipFilter;
+import models.InternshipLevel;
+import models.InternshipStatus;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+/**
+ * This is an InternshipFilter compiled once into the list of criteria that are actually active,
+ * with comparison values resolved up front so rows only pay for the checks they need
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class FilterPlan {
+    public static final int STATUS = InternshipBitmapIndex.STATUS;
+    public static final int LEVEL = InternshipBitmapIndex.LEVEL;
+    public static final int COMPANY = InternshipBitmapIndex.COMPANY;
+    public static final int PREFERRED_MAJOR = InternshipBitmapIndex.PREFERRED_MAJOR;
+    public static final int CLOSING_DATE = 4;
+    public static final int CRITERION_COUNT = 5;
+
+    // No reference to the filter itself: plans are cached by filter in a WeakHashMap, which a reference
+    // from the value would keep from ever letting go of the filter
+    private final int sourceVersion;
+    private final int[] criteria;
+    private final String[] values = new String[CRITERION_COUNT];
+    private final String[] keys = new String[CRITERION_COUNT];
+    private final LocalDate closingAfter;
+    private final LocalDate closingBefore;
+    // Status and level are compared by code; a level that is not a known code falls back to the string
+    private final InternshipStatus statusCode;
+    private final InternshipLevel levelCode;
+
+    private FilterPlan(InternshipFilter filter) {
+        this.sourceVersion = filter.getVersion();
+        this.closingAfter = filter.getClosingDateAfter();
+        this.closingBefore = filter.getClosingDateBefore();
+
+        values[STATUS] = filter.getStatus();
+        values[LEVEL] = filter.getLevel();
+        values[COMPANY] = filter.getCompany();
+        values[PREFERRED_MAJOR] = filter.getPreferredMajor();
+        this.statusCode = InternshipStatus.fromLabel(values[STATUS]);
+        this.levelCode = InternshipLevel.fromLabel(values[LEVEL]);
+
+        int[] active = new int[CRITERION_COUNT];
+        int count = 0;
+        for (int c = 0; c < CLOSING_DATE; c++) {
+            if (values[c] != null) {
+                keys[c] = InternshipBitmapIndex.normalize(values[c]);
+                active[count++] = c;
+            }
+        }
+        if (closingAfter != null || closingBefore != null) {
+            active[count++] = CLOSING_DATE;
+        }
+        this.criteria = Arrays.copyOf(active, count);
+    }
+
+    public static FilterPlan compile(InternshipFilter filter) {
+        return new FilterPlan(filter);
+    }
+
+    // True while the filter, which must be the one this plan was compiled from, has not been changed since
+    public boolean isCurrentFor(InternshipFilter filter) {
+        return filter.getVersion() == sourceVersion;
+    }
+
+    public boolean isEmpty() { return criteria.length == 0; }
+    public String getKey(int criterion) { return keys[criterion]; }
+    public LocalDate getClosingAfter() { return closingAfter; }
+    public LocalDate getClosingBefore() { return closingBefore; }
+
+    // Active criteria, most selective first according to the statistics gathered so far
+    public int[] orderedCriteria(FilterStatistics statistics) {
+        Integer[] boxed = new Integer[criteria.length];
+        for (int i = 0; i < criteria.length; i++) {
+            boxed[i] = criteria[i];
+        }
+        Arrays.sort(boxed, Comparator.comparingDouble(statistics::selectivity));
+
+        int[] order = new int[boxed.length];
+        for (int i = 0; i < boxed.length; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+
+    public boolean test(int criterion, InternshipOpportunity opp) {
+        switch (criterion) {
+            case STATUS:
+                return statusCode != null && opp.getStatusCode() == statusCode;
+            case LEVEL:
+                return levelCode != null ? opp.getLevelCode() == levelCode
+                                         : values[LEVEL].equalsIgnoreCase(opp.getLevel());
+            case COMPANY:
+                return values[COMPANY].equalsIgnoreCase(opp.getCompany());
+            case PREFERRED_MAJOR:
+                return values[PREFERRED_MAJOR].equalsIgnoreCase(opp.getPreferredMajor());
+            case CLOSING_DATE:
+            default:
+                LocalDate closeDate = opp.getCloseDate();
+                return (closingAfter == null || !closeDate.isBefore(closingAfter)) &&
+                       (closingBefore == null || !closeDate.isAfter(closingBefore));
+        }
+    }
+
+    // Evaluates the criteria in the given order, stopping at the first failure and counting what was checked
+    public boolean matches(InternshipOpportunity opp, int[] order, long[] evaluated, long[] passed) {
+        for (int criterion : order) {
+            evaluated[criterion]++;
+            if (!test(criterion, opp)) {
+                return false;
+            }
+            passed[criterion]++;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,28 @@
+package services;
+/**
+ * This is to keep running counts of how many internships each filter criterion lets through,
+ * so that the most selective criterion can be evaluated first
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class FilterStatistics {
+    private final long[] evaluated = new long[FilterPlan.CRITERION_COUNT];
+    private final long[] passed = new long[FilterPlan.CRITERION_COUNT];
+
+    public synchronized void record(int criterion, long evaluatedCount, long passedCount) {
+        evaluated[criterion] += evaluatedCount;
+        passed[criterion] += passedCount;
+    }
+
+    public synchronized void record(long[] evaluatedCounts, long[] passedCounts) {
+        for (int c = 0; c < FilterPlan.CRITERION_COUNT; c++) {
+            evaluated[c] += evaluatedCounts[c];
+            passed[c] += passedCounts[c];
+        }
+    }
+
+    // Fraction of internships that survive the criterion; criteria never seen start at one half
+    public synchronized double selectivity(int criterion) {
+        return (passed[criterion] + 1.0) / (evaluated[criterion] + 2.0);
+    }
+}
@@ -0,0 +1,181 @@
+package services;
+
+import interfaces.InternshipChangeListener;
+import models.InternshipOpportunity;
+import models.InternshipFilter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+/**
+ * This is to filter internships by ANDing the bitsets kept in an InternshipBitmapIndex
+ * instead of comparing every internship against every criterion. The indexes only learn about internships
+ * through the change notifier. A list holding an internship they were never told about, or one much smaller than
+ * the catalog, is scanned instead, using the parallel scan when it is large enough
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class IndexedInternshipFilterService extends InternshipFilterServiceImpl implements InternshipChangeListener {
+    private static final BitSet UNINDEXED = new BitSet();
+    // A list holding less than 1/SCAN_RATIO of the catalog is cheaper to scan than to walk the catalog-wide views
+    private static final int SCAN_RATIO = 8;
+
+    private final InternshipBitmapIndex index = new InternshipBitmapIndex();
+    private final InternshipDateIndex dateIndex = new InternshipDateIndex();
+    private final InternshipSortIndex sortIndex = new InternshipSortIndex();
+
+    public IndexedInternshipFilterService() {
+        this(DEFAULT_PARALLEL_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    public IndexedInternshipFilterService(int parallelThreshold, ForkJoinPool pool) {
+        super(parallelThreshold, pool);
+        InternshipChangeNotifier.addListener(this);
+        for (InternshipOpportunity opp : new ArrayList<>(InternshipCatalog.getAll())) {
+            internshipAdded(opp);
+        }
+    }
+
+    public InternshipBitmapIndex getIndex() { return index; }
+    public InternshipDateIndex getDateIndex() { return dateIndex; }
+
+    @Override
+    public List<InternshipOpportunity> filterInternships(List<InternshipOpportunity> internships, InternshipFilter filter) {
+        if (internships == null || internships.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        BitSet scope = scopeOf(internships);
+        if (cheaperToScan(scope)) {
+            return super.filterInternships(internships, filter);
+        }
+        BitSet matches = matchingIds(planFor(filter), -1);
+        restrict(matches, scope);
+        if (matches.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Results come out of the maintained sorted view already in order
+        return sortIndex.collect(filter.getSortBy(), filter.isSortAscending(), matches);
+    }
+
+    // Walks the sorted view from just after the last internship of the previous page. Matches past the page are
+    // never counted, so the page has no total
+    @Override
+    public InternshipPage filterInternshipsPage(List<InternshipOpportunity> internships, InternshipFilter filter,
+                                                int pageSize, String continuationToken) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        int[] position = InternshipPage.decodeToken(continuationToken);
+        if (internships == null || internships.isEmpty()) {
+            return new InternshipPage(new ArrayList<>(), 0, null);
+        }
+
+        BitSet scope = scopeOf(internships);
+        if (cheaperToScan(scope)) {
+            return super.filterInternshipsPage(internships, filter, pageSize, continuationToken);
+        }
+        BitSet matches = matchingIds(planFor(filter), -1);
+        restrict(matches, scope);
+
+        List<InternshipOpportunity> items = sortIndex.page(filter.getSortBy(), filter.isSortAscending(), matches,
+                                                           position[1], position[0], pageSize + 1);
+        return toUncountedPage(items, position[0], pageSize);
+    }
+
+    // Facet counts come straight from the per-value bitsets, restricted to the internships passed in
+    @Override
+    public InternshipFacets getFacets(List<InternshipOpportunity> internships, InternshipFilter relativeTo) {
+        InternshipFacets facets = new InternshipFacets();
+        if (internships == null) return facets;
+
+        BitSet scope = scopeOf(internships);
+        if (scope == UNINDEXED) {
+            return super.getFacets(internships, relativeTo);
+        }
+        FilterPlan plan = relativeTo == null ? null : planFor(relativeTo);
+        BitSet allMatches = plan != null && !plan.isEmpty() ? matchingIds(plan, -1) : index.all();
+        restrict(allMatches, scope);
+
+        for (int field = 0; field < FilterPlan.CLOSING_DATE; field++) {
+            BitSet base = allMatches;
+            if (plan != null && plan.getKey(field) != null) {
+                // A field's own criterion is left out so the other values of that field still show up
+                base = matchingIds(plan, field);
+                restrict(base, scope);
+            }
+            index.addFacetCounts(facets, field, base);
+        }
+        return facets;
+    }
+
+    // Ids of the given internships: null for the whole catalog, which is exactly what the index holds, and
+    // UNINDEXED when the list has an internship the notifier never reported. A selection already carries its
+    // ids, so only other lists are walked
+    private BitSet scopeOf(List<InternshipOpportunity> internships) {
+        if (InternshipCatalog.isWholeCatalog(internships)) {
+            return null;
+        }
+        if (internships instanceof InternshipSelection) {
+            return ((InternshipSelection) internships).getIds();
+        }
+        BitSet scope = new BitSet();
+        for (InternshipOpportunity opp : internships) {
+            if (!index.contains(opp)) {
+                return UNINDEXED;
+            }
+            scope.set(opp.getId());
+        }
+        return scope;
+    }
+
+    private boolean cheaperToScan(BitSet scope) {
+        return scope == UNINDEXED || (scope != null && (long) scope.cardinality() * SCAN_RATIO < index.size());
+    }
+
+    private static void restrict(BitSet matches, BitSet scope) {
+        if (scope != null) {
+            matches.and(scope);
+        }
+    }
+
+    // ANDs the bitset of each active criterion except 'excluded', most selective first, and stops once nothing is left
+    private BitSet matchingIds(FilterPlan plan, int excluded) {
+        BitSet matches = index.all();
+        for (int criterion : plan.orderedCriteria(statistics)) {
+            if (matches.isEmpty()) break;
+            if (criterion == excluded) continue;
+
+            int before = matches.cardinality();
+            if (criterion == FilterPlan.CLOSING_DATE) {
+                matches.and(dateIndex.closingBetween(plan.getClosingAfter(), plan.getClosingBefore()));
+            } else {
+                index.andLookup(matches, criterion, plan.getKey(criterion));
+            }
+            statistics.record(criterion, before, matches.cardinality());
+        }
+        return matches;
+    }
+
+    // InternshipChangeListener implementation
+    @Override
+    public void internshipAdded(InternshipOpportunity opp) {
+        index.add(opp);
+        dateIndex.add(opp);
+        sortIndex.add(opp);
+    }
+
+    @Override
+    public void internshipChanged(InternshipOpportunity opp) {
+        index.update(opp);
+        dateIndex.update(opp);
+        sortIndex.update(opp);
+    }
+
+    @Override
+    public void internshipRemoved(InternshipOpportunity opp) {
+        index.remove(opp);
+        dateIndex.remove(opp);
+        sortIndex.remove(opp);
+    }
+}
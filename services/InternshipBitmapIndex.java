@@ -0,0 +1,159 @@
+package services;
+
+import models.InternshipOpportunity;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+/**
+ * This is to keep one bitset per status, level, company and preferred major value, addressed by internship id
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class InternshipBitmapIndex {
+    public static final int STATUS = 0;
+    public static final int LEVEL = 1;
+    public static final int COMPANY = 2;
+    public static final int PREFERRED_MAJOR = 3;
+    private static final int FIELD_COUNT = 4;
+
+    private final List<Map<String, BitSet>> fields = new ArrayList<>();
+    // How each normalized key is actually spelled, with a count per spelling, for display in facets
+    private final List<Map<String, TreeMap<String, Integer>>> spellings = new ArrayList<>();
+    private final List<InternshipOpportunity> byId = new ArrayList<>();
+    private final Map<Integer, String[]> indexedValues = new HashMap<>();
+    private final BitSet all = new BitSet();
+
+    public InternshipBitmapIndex() {
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            fields.add(new HashMap<>());
+            spellings.add(new HashMap<>());
+        }
+    }
+
+    public static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    public synchronized boolean contains(InternshipOpportunity opp) {
+        return all.get(opp.getId());
+    }
+
+    public synchronized int size() {
+        return all.cardinality();
+    }
+
+    public synchronized InternshipOpportunity get(int id) {
+        return id < byId.size() ? byId.get(id) : null;
+    }
+
+    public synchronized void add(InternshipOpportunity opp) {
+        int id = opp.getId();
+        if (all.get(id)) return;
+
+        while (byId.size() <= id) {
+            byId.add(null);
+        }
+        byId.set(id, opp);
+        all.set(id);
+
+        String[] values = valuesOf(opp);
+        for (int f = 0; f < FIELD_COUNT; f++) {
+            addValue(f, values[f], id);
+        }
+        indexedValues.put(id, values);
+    }
+
+    public synchronized void update(InternshipOpportunity opp) {
+        int id = opp.getId();
+        if (!all.get(id)) return; // only internships it was told about
+
+        String[] oldValues = indexedValues.get(id);
+        String[] newValues = valuesOf(opp);
+        for (int f = 0; f < FIELD_COUNT; f++) {
+            if (oldValues[f] == null ? newValues[f] == null : oldValues[f].equals(newValues[f])) continue;
+            removeValue(f, oldValues[f], id);
+            addValue(f, newValues[f], id);
+        }
+        indexedValues.put(id, newValues);
+    }
+
+    public synchronized void remove(InternshipOpportunity opp) {
+        int id = opp.getId();
+        if (!all.get(id)) return;
+
+        String[] values = indexedValues.remove(id);
+        for (int f = 0; f < FIELD_COUNT; f++) {
+            removeValue(f, values[f], id);
+        }
+        all.clear(id);
+        byId.set(id, null);
+    }
+
+    // Returns a copy of every indexed id, safe for the caller to AND into
+    public synchronized BitSet all() {
+        return (BitSet) all.clone();
+    }
+
+    // Keeps only the ids in target whose field equals the given normalized key
+    public synchronized void andLookup(BitSet target, int field, String key) {
+        BitSet bits = fields.get(field).get(key);
+        if (bits == null) {
+            target.clear();
+        } else {
+            target.and(bits);
+        }
+    }
+
+    // Adds to facets, for every value of the field, how many of the ids in base have that value
+    public synchronized void addFacetCounts(InternshipFacets facets, int field, BitSet base) {
+        for (Map.Entry<String, BitSet> entry : fields.get(field).entrySet()) {
+            BitSet bits = (BitSet) entry.getValue().clone();
+            bits.and(base);
+            int count = bits.cardinality();
+            if (count > 0) {
+                facets.add(field, spellings.get(field).get(entry.getKey()).firstKey(), count);
+            }
+        }
+    }
+
+    private void addValue(int field, String value, int id) {
+        if (value == null) return;
+        String key = normalize(value);
+        fields.get(field).computeIfAbsent(key, k -> new BitSet()).set(id);
+        spellings.get(field).computeIfAbsent(key, k -> new TreeMap<>()).merge(value, 1, Integer::sum);
+    }
+
+    private void removeValue(int field, String value, int id) {
+        if (value == null) return;
+        String key = normalize(value);
+        BitSet bits = fields.get(field).get(key);
+        if (bits != null) {
+            bits.clear(id);
+            if (bits.isEmpty()) {
+                fields.get(field).remove(key);
+            }
+        }
+        TreeMap<String, Integer> spelled = spellings.get(field).get(key);
+        if (spelled != null) {
+            if (spelled.merge(value, -1, Integer::sum) <= 0) {
+                spelled.remove(value);
+            }
+            if (spelled.isEmpty()) {
+                spellings.get(field).remove(key);
+            }
+        }
+    }
+
+    private static String[] valuesOf(InternshipOpportunity opp) {
+        String[] values = new String[FIELD_COUNT];
+        values[STATUS] = opp.getStatus();
+        values[LEVEL] = opp.getLevel();
+        values[COMPANY] = opp.getCompany();
+        values[PREFERRED_MAJOR] = opp.getPreferredMajor();
+        return values;
+    }
+}
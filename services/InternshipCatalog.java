@@ -0,0 +1,235 @@
+package services;
+
+import interfaces.InternshipChangeListener;
+import models.CompanyRepresentative;
+import models.InternshipOpportunity;
+import models.InternshipStatus;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+/**
+ * This is the one place that holds every internship opportunity, with lookups by status, company,
+ * company representative and title. Lists handed out are read-only views that follow later changes, so copy one
+ * before approving or rejecting internships while walking it
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class InternshipCatalog {
+    private static final List<InternshipOpportunity> all = new ArrayList<>();
+    // Always the same view, so a caller can tell it has been handed the whole catalog
+    private static final List<InternshipOpportunity> allView = Collections.unmodifiableList(all);
+    private static final Map<InternshipStatus, List<InternshipOpportunity>> byStatus = new EnumMap<>(InternshipStatus.class);
+    private static final Map<String, List<InternshipOpportunity>> byCompany = new HashMap<>();
+    private static final Map<String, List<InternshipOpportunity>> byRepresentative = new HashMap<>();
+    private static final Map<Integer, CompanyRepresentative> ownerById = new HashMap<>();
+    // Titles are matched ignoring case; a title alone can belong to several companies
+    private static final Map<String, List<InternshipOpportunity>> byTitle = new HashMap<>();
+    private static final Map<String, List<InternshipOpportunity>> byCompanyTitle = new HashMap<>();
+    private static final Map<Integer, String> indexedTitle = new HashMap<>();
+
+    // Status and visibility each internship was last filed under, so a change can move it to the right list
+    private static final Map<Integer, InternshipStatus> indexedStatus = new HashMap<>();
+    private static final BitSet visibleIds = new BitSet();
+    private static final Map<InternshipStatus, Integer> visibleCounts = new EnumMap<>(InternshipStatus.class);
+
+    static {
+        for (InternshipStatus status : InternshipStatus.values()) {
+            byStatus.put(status, new ArrayList<>());
+            visibleCounts.put(status, 0);
+        }
+        InternshipChangeNotifier.addListener(new InternshipChangeListener() {
+            @Override
+            public void internshipAdded(InternshipOpportunity opp) { }
+
+            @Override
+            public void internshipChanged(InternshipOpportunity opp) {
+                refile(opp);
+            }
+
+            @Override
+            public void internshipRemoved(InternshipOpportunity opp) { }
+        });
+    }
+
+    // Adds a newly created internship under its representative and tells the indexes about it
+    public static void add(CompanyRepresentative rep, InternshipOpportunity opp) {
+        synchronized (InternshipCatalog.class) {
+            if (ownerById.containsKey(opp.getId())) return;
+
+            ownerById.put(opp.getId(), rep);
+            insert(all, opp);
+            insert(byCompany.computeIfAbsent(key(opp.getCompany()), k -> new ArrayList<>()), opp);
+            insert(byRepresentative.computeIfAbsent(rep.getUserID(), k -> new ArrayList<>()), opp);
+            insert(byStatus.get(opp.getStatusCode()), opp);
+            indexedStatus.put(opp.getId(), opp.getStatusCode());
+            fileTitle(opp);
+            if (opp.isVisible()) {
+                visibleIds.set(opp.getId());
+                visibleCounts.merge(opp.getStatusCode(), 1, Integer::sum);
+            }
+        }
+        InternshipChangeNotifier.fireAdded(opp);
+    }
+
+    public static void remove(InternshipOpportunity opp) {
+        synchronized (InternshipCatalog.class) {
+            CompanyRepresentative rep = ownerById.remove(opp.getId());
+            if (rep == null) return;
+
+            delete(all, opp);
+            delete(byCompany.get(key(opp.getCompany())), opp);
+            delete(byRepresentative.get(rep.getUserID()), opp);
+            unfileTitle(opp);
+            InternshipStatus status = indexedStatus.remove(opp.getId());
+            delete(byStatus.get(status), opp);
+            if (visibleIds.get(opp.getId())) {
+                visibleIds.clear(opp.getId());
+                visibleCounts.merge(status, -1, Integer::sum);
+            }
+        }
+        InternshipChangeNotifier.fireRemoved(opp);
+    }
+
+    public static List<InternshipOpportunity> getAll() {
+        return allView;
+    }
+
+    public static boolean isWholeCatalog(List<InternshipOpportunity> internships) {
+        return internships == allView;
+    }
+
+    public static synchronized List<InternshipOpportunity> getByStatus(InternshipStatus status) {
+        return Collections.unmodifiableList(byStatus.get(status));
+    }
+
+    public static synchronized List<InternshipOpportunity> getByCompany(String company) {
+        List<InternshipOpportunity> list = byCompany.get(key(company));
+        return list == null ? Collections.emptyList() : Collections.unmodifiableList(list);
+    }
+
+    public static synchronized List<InternshipOpportunity> getByRepresentative(String repId) {
+        List<InternshipOpportunity> list = byRepresentative.get(repId);
+        return list == null ? Collections.emptyList() : Collections.unmodifiableList(list);
+    }
+
+    // Every internship with this title, whatever the company
+    public static synchronized List<InternshipOpportunity> findByTitle(String title) {
+        List<InternshipOpportunity> list = byTitle.get(key(title));
+        return list == null ? Collections.emptyList() : Collections.unmodifiableList(list);
+    }
+
+    public static synchronized List<InternshipOpportunity> findByCompanyAndTitle(String company, String title) {
+        List<InternshipOpportunity> list = byCompanyTitle.get(companyTitleKey(company, title));
+        return list == null ? Collections.emptyList() : Collections.unmodifiableList(list);
+    }
+
+    public static synchronized CompanyRepresentative getRepresentative(InternshipOpportunity opp) {
+        return ownerById.get(opp.getId());
+    }
+
+    public static synchronized int size() {
+        return all.size();
+    }
+
+    public static synchronized int count(InternshipStatus status) {
+        return byStatus.get(status).size();
+    }
+
+    public static synchronized int countVisible(InternshipStatus status) {
+        return visibleCounts.get(status);
+    }
+
+    private static synchronized void refile(InternshipOpportunity opp) {
+        InternshipStatus previous = indexedStatus.get(opp.getId());
+        if (previous == null) return; // not one of ours
+
+        if (!key(opp.getTitle()).equals(indexedTitle.get(opp.getId()))) {
+            unfileTitle(opp);
+            fileTitle(opp);
+        }
+
+        InternshipStatus current = opp.getStatusCode();
+        boolean wasVisible = visibleIds.get(opp.getId());
+        if (previous != current) {
+            delete(byStatus.get(previous), opp);
+            insert(byStatus.get(current), opp);
+            indexedStatus.put(opp.getId(), current);
+        }
+        if (wasVisible) {
+            visibleCounts.merge(previous, -1, Integer::sum);
+        }
+        if (opp.isVisible()) {
+            visibleCounts.merge(current, 1, Integer::sum);
+        }
+        visibleIds.set(opp.getId(), opp.isVisible());
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static String companyTitleKey(String company, String title) {
+        return key(company) + '\u0000' + key(title);
+    }
+
+    private static void fileTitle(InternshipOpportunity opp) {
+        String title = key(opp.getTitle());
+        indexedTitle.put(opp.getId(), title);
+        insert(byTitle.computeIfAbsent(title, k -> new ArrayList<>()), opp);
+        insert(byCompanyTitle.computeIfAbsent(companyTitleKey(opp.getCompany(), opp.getTitle()), k -> new ArrayList<>()), opp);
+    }
+
+    // Uses the title the internship was filed under, which may differ from its title after an edit
+    private static void unfileTitle(InternshipOpportunity opp) {
+        String title = indexedTitle.remove(opp.getId());
+        if (title == null) return;
+        removeFrom(byTitle, title, opp);
+        removeFrom(byCompanyTitle, key(opp.getCompany()) + '\u0000' + title, opp);
+    }
+
+    private static void removeFrom(Map<String, List<InternshipOpportunity>> index, String key, InternshipOpportunity opp) {
+        List<InternshipOpportunity> list = index.get(key);
+        delete(list, opp);
+        if (list != null && list.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    // Every list is kept in id order, which is the order the internships were created in
+    private static void insert(List<InternshipOpportunity> list, InternshipOpportunity opp) {
+        int pos = search(list, opp.getId());
+        if (pos < 0) {
+            list.add(-pos - 1, opp);
+        }
+    }
+
+    private static void delete(List<InternshipOpportunity> list, InternshipOpportunity opp) {
+        if (list == null) return;
+        int pos = search(list, opp.getId());
+        if (pos >= 0) {
+            list.remove(pos);
+        }
+    }
+
+    private static int search(List<InternshipOpportunity> list, int id) {
+        int low = 0;
+        int high = list.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = list.get(mid).getId();
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
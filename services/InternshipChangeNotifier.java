@@ -0,0 +1,52 @@
+package services;
+
+import interfaces.InternshipChangeListener;
+import models.InternshipOpportunity;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * This is to pass internship changes on to the indexes that keep track of the catalog
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class InternshipChangeNotifier {
+    private static final List<InternshipChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private static final AtomicLong version = new AtomicLong();
+
+    public static void addListener(InternshipChangeListener listener) {
+        if (listener != null && !listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    public static void removeListener(InternshipChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Bumped on every internship change, so anything derived from the catalog can tell it is stale
+    public static long getVersion() {
+        return version.get();
+    }
+
+    public static void fireAdded(InternshipOpportunity opp) {
+        version.incrementAndGet();
+        for (InternshipChangeListener l : listeners) {
+            l.internshipAdded(opp);
+        }
+    }
+
+    public static void fireChanged(InternshipOpportunity opp) {
+        version.incrementAndGet();
+        for (InternshipChangeListener l : listeners) {
+            l.internshipChanged(opp);
+        }
+    }
+
+    public static void fireRemoved(InternshipOpportunity opp) {
+        version.incrementAndGet();
+        for (InternshipChangeListener l : listeners) {
+            l.internshipRemoved(opp);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package services;
+
+import models.InternshipOpportunity;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+/**
+ * This is to keep internships ordered by close date, with their open date alongside, so that date ranges are sub-range lookups
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class InternshipDateIndex {
+    private final NavigableMap<LocalDate, BitSet> byClose = new TreeMap<>();
+    private final List<InternshipOpportunity> byId = new ArrayList<>();
+    private final List<LocalDate[]> indexedDates = new ArrayList<>();
+
+    public synchronized InternshipOpportunity get(int id) {
+        return id < byId.size() ? byId.get(id) : null;
+    }
+
+    public synchronized void add(InternshipOpportunity opp) {
+        int id = opp.getId();
+        while (byId.size() <= id) {
+            byId.add(null);
+            indexedDates.add(null);
+        }
+        if (byId.get(id) != null) {
+            update(opp);
+            return;
+        }
+
+        LocalDate[] dates = { opp.getOpenDate(), opp.getCloseDate() };
+        byId.set(id, opp);
+        indexedDates.set(id, dates);
+        setBit(byClose, dates[1], id);
+    }
+
+    public synchronized void update(InternshipOpportunity opp) {
+        int id = opp.getId();
+        if (id >= byId.size() || byId.get(id) == null) return; // only internships it was told about
+
+        LocalDate[] dates = indexedDates.get(id);
+        dates[0] = opp.getOpenDate();
+        if (!sameDate(dates[1], opp.getCloseDate())) {
+            clearBit(byClose, dates[1], id);
+            dates[1] = opp.getCloseDate();
+            setBit(byClose, dates[1], id);
+        }
+    }
+
+    public synchronized void remove(InternshipOpportunity opp) {
+        int id = opp.getId();
+        if (id >= byId.size() || byId.get(id) == null) return;
+
+        LocalDate[] dates = indexedDates.get(id);
+        clearBit(byClose, dates[1], id);
+        byId.set(id, null);
+        indexedDates.set(id, null);
+    }
+
+    // Ids closing on or after 'after' and on or before 'before'; either bound may be null for no limit
+    public synchronized BitSet closingBetween(LocalDate after, LocalDate before) {
+        BitSet result = new BitSet();
+        if (after != null && before != null && after.isAfter(before)) {
+            return result;
+        }
+
+        NavigableMap<LocalDate, BitSet> range = byClose;
+        if (after != null && before != null) {
+            range = byClose.subMap(after, true, before, true);
+        } else if (after != null) {
+            range = byClose.tailMap(after, true);
+        } else if (before != null) {
+            range = byClose.headMap(before, true);
+        }
+
+        for (BitSet bits : range.values()) {
+            result.or(bits);
+        }
+        return result;
+    }
+
+    // Ids whose application window contains the given day, walking only the postings that have not closed yet
+    public synchronized BitSet openOn(LocalDate day) {
+        BitSet result = new BitSet();
+        for (Map.Entry<LocalDate, BitSet> entry : byClose.tailMap(day, true).entrySet()) {
+            BitSet bits = entry.getValue();
+            for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+                LocalDate open = indexedDates.get(id)[0];
+                if (open != null && !day.isBefore(open)) {
+                    result.set(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void setBit(NavigableMap<LocalDate, BitSet> map, LocalDate date, int id) {
+        if (date == null) return;
+        map.computeIfAbsent(date, d -> new BitSet()).set(id);
+    }
+
+    private static void clearBit(NavigableMap<LocalDate, BitSet> map, LocalDate date, int id) {
+        if (date == null) return;
+        BitSet bits = map.get(date);
+        if (bits == null) return;
+        bits.clear(id);
+        if (bits.isEmpty()) {
+            map.remove(date);
+        }
+    }
+
+    private static boolean sameDate(LocalDate a, LocalDate b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
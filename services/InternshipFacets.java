@@ -0,0 +1,59 @@
+package services;
+
+import models.InternshipOpportunity;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+/**
+ * This is the available levels, companies, statuses and preferred majors together with how many internships have each
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class InternshipFacets {
+    private final List<Map<String, Integer>> counts = new ArrayList<>();
+    // Values that only differ in case are counted together under the alphabetically first spelling
+    private final List<Map<String, String>> spellings = new ArrayList<>();
+
+    public InternshipFacets() {
+        for (int f = 0; f < 4; f++) {
+            counts.add(new TreeMap<>());
+            spellings.add(new HashMap<>());
+        }
+    }
+
+    public Map<String, Integer> getLevels() { return counts.get(InternshipBitmapIndex.LEVEL); }
+    public Map<String, Integer> getCompanies() { return counts.get(InternshipBitmapIndex.COMPANY); }
+    public Map<String, Integer> getStatuses() { return counts.get(InternshipBitmapIndex.STATUS); }
+    public Map<String, Integer> getPreferredMajors() { return counts.get(InternshipBitmapIndex.PREFERRED_MAJOR); }
+
+    public List<String> values(int field) {
+        return new ArrayList<>(counts.get(field).keySet());
+    }
+
+    public void add(int field, String value, int count) {
+        if (value == null || value.trim().isEmpty() || count <= 0) return;
+        String key = InternshipBitmapIndex.normalize(value);
+        String display = spellings.get(field).get(key);
+        if (display != null && value.compareTo(display) < 0) {
+            count += counts.get(field).remove(display);
+            display = null;
+        }
+        if (display == null) {
+            display = value;
+            spellings.get(field).put(key, value);
+        }
+        counts.get(field).merge(display, count, Integer::sum);
+    }
+
+    // Counts the internship under every field, or under a single field when only that field's criterion failed
+    public void add(InternshipOpportunity opp, int onlyField) {
+        String[] values = { opp.getStatus(), opp.getLevel(), opp.getCompany(), opp.getPreferredMajor() };
+        for (int f = 0; f < values.length; f++) {
+            if (onlyField < 0 || onlyField == f) {
+                add(f, values[f], 1);
+            }
+        }
+    }
+}
@@ -3,18 +3,42 @@ package services;
 import interfaces.InternshipFilterService;
 import models.InternshipOpportunity;
 import models.InternshipFilter;
-import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 /**
  * This is to filter out the targeted matching internship
  * @author Dai Jiayu
  * @version 1.0
  */
 public class InternshipFilterServiceImpl implements InternshipFilterService {
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 20000;
+    private static final int MIN_CHUNK_SIZE = 2048;
+
+    protected final FilterStatistics statistics = new FilterStatistics();
+    private final Map<InternshipFilter, FilterPlan> plans = new WeakHashMap<>();
+    private final ForkJoinPool pool;
+    private volatile int parallelThreshold; // read by whichever thread runs a query
+
+    public InternshipFilterServiceImpl() {
+        this(DEFAULT_PARALLEL_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    // Lists of at least parallelThreshold internships are scanned in chunks on the given pool
+    public InternshipFilterServiceImpl(int parallelThreshold, ForkJoinPool pool) {
+        this.parallelThreshold = parallelThreshold;
+        this.pool = pool;
+    }
+
+    public int getParallelThreshold() { return parallelThreshold; }
+    public void setParallelThreshold(int parallelThreshold) { this.parallelThreshold = parallelThreshold; }
     
     @Override
     public List<InternshipOpportunity> filterInternships(List<InternshipOpportunity> internships, InternshipFilter filter) {
@@ -22,63 +46,174 @@ public class InternshipFilterServiceImpl implements InternshipFilterService {
             return new ArrayList<>(); 
         }
     
+        FilterPlan plan = planFor(filter);
+        int[] order = plan.orderedCriteria(statistics);
+
+        if (internships.size() >= parallelThreshold && pool.getParallelism() > 1) {
+            List<InternshipOpportunity> source = internships instanceof RandomAccess ? internships : new ArrayList<>(internships);
+            int chunkSize = Math.max(MIN_CHUNK_SIZE, source.size() / (pool.getParallelism() * 4));
+            return pool.invoke(new ParallelScan(source, 0, source.size(), chunkSize, plan, order, getComparator(filter)));
+        }
+
+        long[] evaluated = new long[FilterPlan.CRITERION_COUNT];
+        long[] passed = new long[FilterPlan.CRITERION_COUNT];
         List<InternshipOpportunity> filtered = new ArrayList<>();
         for (InternshipOpportunity opp : internships) {
-            if (filterByStatus(opp, filter) && 
-                filterByLevel(opp, filter) &&
-                filterByClosingDate(opp, filter) &&
-                filterByCompany(opp, filter)&&
-                filterByPreferredMajor(opp,filter)) {
+            if (plan.matches(opp, order, evaluated, passed)) {
                 filtered.add(opp);
             }
         }
+        statistics.record(evaluated, passed);
     
-        filtered.sort((a, b) -> {
-            if ("title".equals(filter.getSortBy())) {
-                return a.getTitle().compareTo(b.getTitle());
-            } else if ("company".equals(filter.getSortBy())) {
-                return a.getCompany().compareTo(b.getCompany());
-            } else if ("preferredmajor".equals(filter.getSortBy())){
-                return a.getPreferredMajor().compareTo(b.getPreferredMajor());
-            }
-        
-            return 0;
-        });
-    
+        sortResults(filtered, filter);
         return filtered;
     }
-    
-    private boolean filterByStatus(InternshipOpportunity opp, InternshipFilter filter) {
-        return filter.getStatus() == null || 
-               filter.getStatus().equalsIgnoreCase(opp.getStatus());
+
+    // Splits the list in halves until chunks are small, filters and sorts each chunk, then merges the sorted halves
+    private class ParallelScan extends RecursiveTask<List<InternshipOpportunity>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<InternshipOpportunity> source;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final FilterPlan plan;
+        private final int[] order;
+        private final Comparator<InternshipOpportunity> comparator;
+
+        ParallelScan(List<InternshipOpportunity> source, int from, int to, int chunkSize,
+                     FilterPlan plan, int[] order, Comparator<InternshipOpportunity> comparator) {
+            this.source = source;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.plan = plan;
+            this.order = order;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected List<InternshipOpportunity> compute() {
+            if (to - from <= chunkSize) {
+                long[] evaluated = new long[FilterPlan.CRITERION_COUNT];
+                long[] passed = new long[FilterPlan.CRITERION_COUNT];
+                List<InternshipOpportunity> chunk = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    InternshipOpportunity opp = source.get(i);
+                    if (plan.matches(opp, order, evaluated, passed)) {
+                        chunk.add(opp);
+                    }
+                }
+                statistics.record(evaluated, passed);
+                chunk.sort(comparator);
+                return chunk;
+            }
+
+            int mid = (from + to) >>> 1;
+            ParallelScan left = new ParallelScan(source, from, mid, chunkSize, plan, order, comparator);
+            ParallelScan right = new ParallelScan(source, mid, to, chunkSize, plan, order, comparator);
+            left.fork();
+            List<InternshipOpportunity> rightResult = right.compute();
+            return merge(left.join(), rightResult);
+        }
+
+        // Ties keep the left chunk first, so the result matches a stable sort of the whole list
+        private List<InternshipOpportunity> merge(List<InternshipOpportunity> a, List<InternshipOpportunity> b) {
+            List<InternshipOpportunity> merged = new ArrayList<>(a.size() + b.size());
+            int i = 0;
+            int j = 0;
+            while (i < a.size() && j < b.size()) {
+                if (comparator.compare(b.get(j), a.get(i)) < 0) {
+                    merged.add(b.get(j++));
+                } else {
+                    merged.add(a.get(i++));
+                }
+            }
+            while (i < a.size()) merged.add(a.get(i++));
+            while (j < b.size()) merged.add(b.get(j++));
+            return merged;
+        }
     }
-    
-    
-    private boolean filterByLevel(InternshipOpportunity opp, InternshipFilter filter) {
-        return filter.getLevel() == null || 
-               filter.getLevel().equalsIgnoreCase(opp.getLevel());
+
+    // Keeps only the first offset + pageSize matches in a bounded heap, so an early page never sorts every match
+    @Override
+    public InternshipPage filterInternshipsPage(List<InternshipOpportunity> internships, InternshipFilter filter,
+                                                int pageSize, String continuationToken) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        int offset = InternshipPage.decodeToken(continuationToken)[0];
+        if (internships == null || internships.isEmpty()) {
+            return new InternshipPage(new ArrayList<>(), 0, null);
+        }
+
+        FilterPlan plan = planFor(filter);
+        int[] order = plan.orderedCriteria(statistics);
+        long[] evaluated = new long[FilterPlan.CRITERION_COUNT];
+        long[] passed = new long[FilterPlan.CRITERION_COUNT];
+
+        Comparator<InternshipOpportunity> comparator = getComparator(filter);
+        int keep = (int) Math.min((long) offset + pageSize, internships.size());
+        PriorityQueue<InternshipOpportunity> worstFirst = new PriorityQueue<>(keep + 1, comparator.reversed());
+        int totalMatches = 0;
+
+        for (InternshipOpportunity opp : internships) {
+            if (!plan.matches(opp, order, evaluated, passed)) continue;
+            totalMatches++;
+            if (worstFirst.size() < keep) {
+                worstFirst.add(opp);
+            } else if (comparator.compare(opp, worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(opp);
+            }
+        }
+        statistics.record(evaluated, passed);
+
+        List<InternshipOpportunity> top = new ArrayList<>(worstFirst);
+        top.sort(comparator);
+        List<InternshipOpportunity> items = offset >= top.size()
+                ? new ArrayList<>()
+                : new ArrayList<>(top.subList(offset, top.size()));
+        return toPage(items, offset, totalMatches);
     }
-    
-    private boolean filterByClosingDate(InternshipOpportunity opp, InternshipFilter filter) {
-        LocalDate closeDate = opp.getCloseDate();
-        boolean afterCondition = filter.getClosingDateAfter() == null || 
-                               !closeDate.isBefore(filter.getClosingDateAfter());
-        boolean beforeCondition = filter.getClosingDateBefore() == null || 
-                                !closeDate.isAfter(filter.getClosingDateBefore());
-        return afterCondition && beforeCondition;
+
+    protected InternshipPage toPage(List<InternshipOpportunity> items, int offset, int totalMatches) {
+        int returned = offset + items.size();
+        String next = null;
+        if (!items.isEmpty() && returned < totalMatches) {
+            next = InternshipPage.encodeToken(returned, items.get(items.size() - 1).getId());
+        }
+        return new InternshipPage(items, totalMatches, next);
     }
-    
-    private boolean filterByCompany(InternshipOpportunity opp, InternshipFilter filter) {
-        return filter.getCompany() == null || 
-               filter.getCompany().equalsIgnoreCase(opp.getCompany());
+
+    // For a page fetched with one item more than pageSize: the extra item only shows there is a next page
+    protected InternshipPage toUncountedPage(List<InternshipOpportunity> items, int offset, int pageSize) {
+        if (items.size() <= pageSize) {
+            return new InternshipPage(items, InternshipPage.UNKNOWN_TOTAL, null);
+        }
+        List<InternshipOpportunity> kept = new ArrayList<>(items.subList(0, pageSize));
+        String next = InternshipPage.encodeToken(offset + pageSize, kept.get(pageSize - 1).getId());
+        return new InternshipPage(kept, InternshipPage.UNKNOWN_TOTAL, next);
     }
 
-    private boolean filterByPreferredMajor(InternshipOpportunity opp, InternshipFilter filter){
-        return filter.getPreferredMajor()== null ||
-               filter.getPreferredMajor().equalsIgnoreCase(opp.getPreferredMajor());
+    protected void sortResults(List<InternshipOpportunity> filtered, InternshipFilter filter) {
+        filtered.sort(getComparator(filter));
     }
     
-    private Comparator<InternshipOpportunity> getComparator(InternshipFilter filter) {
+    // Reuses the compiled plan for this filter until one of its setters is called again. The map is keyed by
+    // the filter object, so a plan is dropped once its filter is no longer used anywhere
+    protected FilterPlan planFor(InternshipFilter filter) {
+        synchronized (plans) {
+            FilterPlan plan = plans.get(filter);
+            if (plan == null || !plan.isCurrentFor(filter)) {
+                plan = FilterPlan.compile(filter);
+                plans.put(filter, plan);
+            }
+            return plan;
+        }
+    }
+    
+    protected Comparator<InternshipOpportunity> getComparator(InternshipFilter filter) {
         Comparator<InternshipOpportunity> comparator;
         
         switch (filter.getSortBy().toLowerCase()) {
@@ -106,109 +241,57 @@ public class InternshipFilterServiceImpl implements InternshipFilterService {
         if (!filter.isSortAscending()) {
             comparator = comparator.reversed();
         }
-        
-        return comparator;
+        // Equal keys come in id order whichever way the sort goes, the same as InternshipSortIndex
+        return comparator.thenComparingInt(InternshipOpportunity::getId);
     }
     
     
     @Override
     public List<String> getAvailableLevels(List<InternshipOpportunity> internships) {
-        List<String> result = new ArrayList<>();
-    
-        if (internships == null) return result;
-    
-        for (int i = 0; i < internships.size(); i++) {
-            InternshipOpportunity opp = internships.get(i);
-            String lvl = opp.getLevel();
-        
-
-            if (lvl == null || lvl.isEmpty()) continue;
-        
-
-            boolean duplicate = false;
-            for (String item : result) {
-                if (item.equals(lvl)) {
-                    duplicate = true;
-                    break;
-                }
-            }
-        
-            if (!duplicate) {
-                result.add(lvl);
-            }
-        }
-    
-        if (result.size() > 0) {
-            result.sort(String::compareTo);  
-        }
-    
-        return result;
+        return getFacets(internships, null).values(InternshipBitmapIndex.LEVEL);
     }
     
     @Override
     public List<String> getAvailableCompanies(List<InternshipOpportunity> internships) {
-        List<String> companies = new ArrayList<>();
-    
-        if (internships == null) {
-            return companies;
-        }
-    
-        for (InternshipOpportunity opp : internships) {
-            String company = opp.getCompany();
-            if (company != null && !company.trim().isEmpty()) {
-                if (!companies.contains(company)) {
-                    companies.add(company);
-                }
-            }
-        }
-    
-        Collections.sort(companies);
-        return companies;
+        return getFacets(internships, null).values(InternshipBitmapIndex.COMPANY);
     }
+
     @Override
     public List<String> getAvailableStatuses(List<InternshipOpportunity> internships) {
-        List<String> result = new ArrayList<>();
-    
-        if (internships == null) {
-            return result;  
-        }
-    
-        for (InternshipOpportunity opp : internships) {
-            String status = opp.getStatus();
-
-            if (status == null || status.trim().length() == 0) {
-                continue;
-            }
-            if (!result.contains(status)) {
-                result.add(status);
-            }
-        }
-    
-        result.sort(String::compareTo);
-        return result;
+        return getFacets(internships, null).values(InternshipBitmapIndex.STATUS);
     }
 
     @Override
     public List<String> getAvailablePreferredMajors(List<InternshipOpportunity> internships) {
-        List<String> result = new ArrayList<>();
+        return getFacets(internships, null).values(InternshipBitmapIndex.PREFERRED_MAJOR);
+    }
+
+    // One pass over the internships for all four facets. With a filter, an internship is counted under
+    // a field when it passes every other active criterion, so the counts show what picking that value would give
+    @Override
+    public InternshipFacets getFacets(List<InternshipOpportunity> internships, InternshipFilter relativeTo) {
+        InternshipFacets facets = new InternshipFacets();
+        if (internships == null) return facets;
 
-        if (internships == null) return result;
+        FilterPlan plan = relativeTo == null ? null : planFor(relativeTo);
+        int[] criteria = plan == null ? new int[0] : plan.orderedCriteria(statistics);
 
         for (InternshipOpportunity opp : internships) {
-            String major = opp.getPreferredMajor();
-            
-            if (major == null || major.trim().isEmpty()) continue;
-            
-            if (!result.contains(major)) {
-                result.add(major);
+            int failures = 0;
+            int failedCriterion = -1;
+            for (int criterion : criteria) {
+                if (!plan.test(criterion, opp)) {
+                    failedCriterion = criterion;
+                    if (++failures > 1) break;
+                }
             }
-        }
 
-        if (!result.isEmpty()) {
-            result.sort(String::compareTo);
+            if (failures == 0) {
+                facets.add(opp, -1);
+            } else if (failures == 1 && failedCriterion != FilterPlan.CLOSING_DATE) {
+                facets.add(opp, failedCriterion);
+            }
         }
-
-        return result;
+        return facets;
     }
 }
-
@@ -0,0 +1,53 @@
+package services;
+
+import models.InternshipOpportunity;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+/**
+ * This is one page of filtered internships, with the token to ask for the next page
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class InternshipPage {
+    // Total of a page whose matches were not all counted
+    public static final int UNKNOWN_TOTAL = -1;
+
+    private final List<InternshipOpportunity> items;
+    private final int totalMatches;
+    private final String continuationToken;
+
+    public InternshipPage(List<InternshipOpportunity> items, int totalMatches, String continuationToken) {
+        this.items = items;
+        this.totalMatches = totalMatches;
+        this.continuationToken = continuationToken;
+    }
+
+    public List<InternshipOpportunity> getItems() { return items; }
+    // UNKNOWN_TOTAL when the matches after this page were never counted
+    public int getTotalMatches() { return totalMatches; }
+    public boolean hasTotal() { return totalMatches != UNKNOWN_TOTAL; }
+    // null once the last page has been returned
+    public String getContinuationToken() { return continuationToken; }
+    public boolean hasMore() { return continuationToken != null; }
+
+    // The token records how many matches were already returned and the id of the last one
+    static String encodeToken(int offset, int lastId) {
+        String raw = offset + ":" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns {offset, lastId}, or {0, -1} for the first page
+    static int[] decodeToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return new int[] { 0, -1 };
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            return new int[] { Integer.parseInt(parts[0]), Integer.parseInt(parts[1]) };
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid continuation token: " + token);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package services;
+
+import interfaces.InternshipChangeListener;
+import models.ApplicationStatus;
+import models.InternshipApplication;
+import models.InternshipOpportunity;
+import models.InternshipStatus;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+/**
+ * This is to open and close internship application windows on their dates. When a window closes an
+ * approved internship is moved to Closed and its pending applications are rejected, all in one pass. Nothing runs
+ * in the background: the console polls it between commands. The clock can be swapped out, so the dates
+ * can be tried without waiting for them
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class InternshipScheduler implements InternshipChangeListener {
+    private final Clock clock;
+    private final Map<Integer, InternshipOpportunity> byId = new HashMap<>();
+    private final Map<Integer, LocalDate[]> scheduledDates = new HashMap<>();
+    // Days on which an internship's window opens, or the day after it closes; stale entries are harmless
+    private final TreeMap<LocalDate, BitSet> events = new TreeMap<>();
+
+    public InternshipScheduler() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public InternshipScheduler(Clock clock) {
+        this.clock = clock;
+        InternshipChangeNotifier.addListener(this);
+        for (InternshipOpportunity opp : new ArrayList<>(InternshipCatalog.getAll())) {
+            internshipAdded(opp);
+        }
+    }
+
+    public LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    // Handles whatever is already due; after this the console calls poll() between commands
+    public void start() {
+        runDue();
+    }
+
+    // Cheap enough to call before every menu prompt; only does work on a day something is due
+    public void poll() {
+        synchronized (this) {
+            if (events.isEmpty() || events.firstKey().isAfter(today())) return;
+        }
+        runDue();
+    }
+
+    // Handles every event dated today or earlier; returns how many internships were closed
+    public int runDue() {
+        LocalDate today = today();
+        List<InternshipOpportunity> due = new ArrayList<>();
+        synchronized (this) {
+            BitSet ids = new BitSet();
+            while (!events.isEmpty() && !events.firstKey().isAfter(today)) {
+                ids.or(events.pollFirstEntry().getValue());
+            }
+            for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+                InternshipOpportunity opp = byId.get(id);
+                if (opp != null) {
+                    due.add(opp);
+                }
+            }
+        }
+
+        int closed = 0;
+        int rejected = 0;
+        for (InternshipOpportunity opp : due) {
+            opp.setApplicationOpen(isOpenOn(opp, today));
+            if (today.isAfter(opp.getCloseDate())) {
+                if (opp.getStatusCode() == InternshipStatus.APPROVED) {
+                    closed++;
+                }
+                rejected += close(opp);
+            }
+        }
+        if (closed > 0 || rejected > 0) {
+            System.out.println("Application period ended for " + closed + " internship(s); " +
+                               rejected + " pending application(s) rejected.");
+        }
+        return closed;
+    }
+
+    private static boolean isOpenOn(InternshipOpportunity opp, LocalDate day) {
+        return !day.isBefore(opp.getOpenDate()) && !day.isAfter(opp.getCloseDate());
+    }
+
+    // Only approved postings are closed: pending ones still wait for staff, and filled and rejected ones keep
+    // their status. Applications that were never offered are rejected
+    private int close(InternshipOpportunity opp) {
+        if (opp.getStatusCode() == InternshipStatus.APPROVED) {
+            opp.setStatus(InternshipStatus.CLOSED);
+        }
+        int rejected = 0;
+        for (InternshipApplication app : opp.getApplications(ApplicationStatus.PENDING)) {
+            app.setStatus(ApplicationStatus.REJECTED);
+            rejected++;
+        }
+        return rejected;
+    }
+
+    // Queues the internship's next dates and works out its open flag for today straight away. The flag agrees
+    // with the dates the internship went by until now, so setting it fires nothing while a change is delivered
+    private void schedule(InternshipOpportunity opp) {
+        LocalDate[] dates = { opp.getOpenDate(), opp.getCloseDate() };
+        synchronized (this) {
+            LocalDate[] previous = scheduledDates.get(opp.getId());
+            if (previous != null && previous[0].equals(dates[0]) && previous[1].equals(dates[1])) return;
+
+            byId.put(opp.getId(), opp);
+            scheduledDates.put(opp.getId(), dates);
+            events.computeIfAbsent(dates[0], d -> new BitSet()).set(opp.getId());
+            events.computeIfAbsent(dates[1].plusDays(1), d -> new BitSet()).set(opp.getId());
+        }
+        opp.setApplicationOpen(isOpenOn(opp, today()));
+    }
+
+    // InternshipChangeListener implementation
+    @Override
+    public void internshipAdded(InternshipOpportunity opp) {
+        schedule(opp);
+    }
+
+    // Only new dates need rescheduling
+    @Override
+    public void internshipChanged(InternshipOpportunity opp) {
+        synchronized (this) {
+            if (!byId.containsKey(opp.getId())) return;
+        }
+        schedule(opp);
+    }
+
+    @Override
+    public synchronized void internshipRemoved(InternshipOpportunity opp) {
+        byId.remove(opp.getId());
+        scheduledDates.remove(opp.getId());
+    }
+}
@@ -0,0 +1,178 @@
+package services;
+
+import interfaces.InternshipChangeListener;
+import interfaces.InternshipFilterService;
+import models.InternshipOpportunity;
+import models.InternshipFilter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+/**
+ * This is a keyword search over the title, description, company and preferred major of every internship,
+ * kept as an inverted index from word to internships and ranked with BM25
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class InternshipSearchIndex implements InternshipChangeListener {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // term -> (internship id -> how many times the term occurs in that internship)
+    private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+    private final Map<Integer, Map<String, Integer>> termsById = new HashMap<>();
+    private final Map<Integer, Integer> lengthById = new HashMap<>();
+    private final Map<Integer, InternshipOpportunity> byId = new HashMap<>();
+    private long totalLength = 0;
+
+    public InternshipSearchIndex() {
+        InternshipChangeNotifier.addListener(this);
+        for (InternshipOpportunity opp : new ArrayList<>(InternshipCatalog.getAll())) {
+            internshipAdded(opp);
+        }
+    }
+
+    // Lowercased runs of letters and digits
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(c);
+            } else if (current.length() > 0) {
+                tokens.add(current.toString().toLowerCase(Locale.ROOT));
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString().toLowerCase(Locale.ROOT));
+        }
+        return tokens;
+    }
+
+    public synchronized int size() { return byId.size(); }
+
+    public synchronized boolean contains(InternshipOpportunity opp) {
+        return byId.get(opp.getId()) == opp;
+    }
+
+    // Internships among the given ones that contain at least one of the query words, best match first. Only
+    // internships the notifier reported are searched; indexing anything else here would change every score
+    public List<InternshipOpportunity> search(String query, List<InternshipOpportunity> internships) {
+        BitSet scope;
+        if (internships instanceof InternshipSelection) {
+            scope = ((InternshipSelection) internships).getIds();
+        } else {
+            scope = new BitSet();
+            for (InternshipOpportunity opp : internships) {
+                if (contains(opp)) {
+                    scope.set(opp.getId());
+                }
+            }
+        }
+        return rank(query, scope);
+    }
+
+    // Keyword search over the internships that also pass the filter
+    public List<InternshipOpportunity> search(String query, List<InternshipOpportunity> internships,
+                                              InternshipFilter filter, InternshipFilterService filterService) {
+        if (filter == null || !filter.hasActiveFilters()) {
+            return search(query, internships);
+        }
+        return search(query, filterService.filterInternships(internships, filter));
+    }
+
+    private synchronized List<InternshipOpportunity> rank(String query, BitSet scope) {
+        List<InternshipOpportunity> result = new ArrayList<>();
+        if (byId.isEmpty() || scope.isEmpty()) return result;
+
+        int docCount = byId.size();
+        double averageLength = (double) totalLength / docCount;
+        Map<Integer, Double> scores = new HashMap<>();
+
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            Map<Integer, Integer> posting = postings.get(term);
+            if (posting == null) continue;
+
+            int df = posting.size();
+            double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+            for (Map.Entry<Integer, Integer> e : posting.entrySet()) {
+                int id = e.getKey();
+                if (!scope.get(id)) continue;
+
+                int tf = e.getValue();
+                double norm = K1 * (1 - B + B * lengthById.get(id) / averageLength);
+                scores.merge(id, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+            }
+        }
+
+        List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(scores.entrySet());
+        // Highest score first; equal scores keep the order the internships were created in
+        ranked.sort((a, b) -> {
+            int c = Double.compare(b.getValue(), a.getValue());
+            return c != 0 ? c : Integer.compare(a.getKey(), b.getKey());
+        });
+        for (Map.Entry<Integer, Double> e : ranked) {
+            result.add(byId.get(e.getKey()));
+        }
+        return result;
+    }
+
+    private static Map<String, Integer> termsOf(InternshipOpportunity opp) {
+        Map<String, Integer> terms = new HashMap<>();
+        String[] fields = { opp.getTitle(), opp.getDescription(), opp.getCompany(), opp.getPreferredMajor() };
+        for (String field : fields) {
+            for (String token : tokenize(field)) {
+                terms.merge(token, 1, Integer::sum);
+            }
+        }
+        return terms;
+    }
+
+    // InternshipChangeListener implementation
+    @Override
+    public synchronized void internshipAdded(InternshipOpportunity opp) {
+        if (byId.containsKey(opp.getId())) {
+            internshipRemoved(byId.get(opp.getId()));
+        }
+        Map<String, Integer> terms = termsOf(opp);
+        int length = 0;
+        for (Map.Entry<String, Integer> e : terms.entrySet()) {
+            postings.computeIfAbsent(e.getKey(), k -> new HashMap<>()).put(opp.getId(), e.getValue());
+            length += e.getValue();
+        }
+        termsById.put(opp.getId(), terms);
+        lengthById.put(opp.getId(), length);
+        byId.put(opp.getId(), opp);
+        totalLength += length;
+    }
+
+    // Status and visibility changes leave the text alone, so the terms are only rebuilt when they differ
+    @Override
+    public synchronized void internshipChanged(InternshipOpportunity opp) {
+        Map<String, Integer> indexed = termsById.get(opp.getId());
+        if (indexed != null && indexed.equals(termsOf(opp))) return;
+        internshipAdded(opp);
+    }
+
+    @Override
+    public synchronized void internshipRemoved(InternshipOpportunity opp) {
+        Map<String, Integer> terms = termsById.remove(opp.getId());
+        if (terms == null) return;
+        for (String term : terms.keySet()) {
+            Map<Integer, Integer> posting = postings.get(term);
+            posting.remove(opp.getId());
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengthById.remove(opp.getId());
+        byId.remove(opp.getId());
+    }
+}
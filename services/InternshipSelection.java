@@ -0,0 +1,35 @@
+package services;
+
+import models.InternshipOpportunity;
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.List;
+/**
+ * This is a read-only list of internships that also carries their ids as a bitset, so the filter indexes can
+ * restrict to it without walking the list again, and a key naming how it was chosen, so cached results can be
+ * found without looking at the internships at all
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class InternshipSelection extends AbstractList<InternshipOpportunity> {
+    private final List<InternshipOpportunity> items;
+    private final BitSet ids;
+    private final String scopeKey;
+
+    // 'ids' must hold exactly the ids of 'items', and every selection with the same scopeKey the same internships
+    InternshipSelection(List<InternshipOpportunity> items, BitSet ids, String scopeKey) {
+        this.items = items;
+        this.ids = ids;
+        this.scopeKey = scopeKey;
+    }
+
+    // A copy, so callers can AND it with their own bitsets
+    public BitSet getIds() { return (BitSet) ids.clone(); }
+    public String getScopeKey() { return scopeKey; }
+
+    @Override
+    public InternshipOpportunity get(int index) { return items.get(index); }
+
+    @Override
+    public int size() { return items.size(); }
+}
@@ -3,8 +3,10 @@ package services;
 import models.Student;
 import models.CompanyRepresentative;
 import models.InternshipOpportunity;
+import models.InternshipStatus;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.stream.Collectors;
 /**
@@ -13,18 +15,52 @@ import java.util.stream.Collectors;
  * @version 1.0
  */
 public class InternshipService {
+    private final InternshipDateIndex dateIndex;
+    private final CohortEligibilityIndex eligibility;
+
+    public InternshipService() {
+        this(null, null);
+    }
+
+    public InternshipService(InternshipDateIndex dateIndex, CohortEligibilityIndex eligibility) {
+        this.dateIndex = dateIndex;
+        this.eligibility = eligibility;
+    }
     
     public List<InternshipOpportunity> getAvailableInternshipsForStudent(Student student, List<CompanyRepresentative> reps) {
         List<InternshipOpportunity> list = new ArrayList<>();
         LocalDate today = LocalDate.now();
-        
+
+        if (eligibility != null) {
+            // Everything the selection depends on, read before it is built so a change made meanwhile gives a new key
+            String scopeKey = "cohort " + CohortEligibilityIndex.cohortKey(student.getMajor(), student.getYear()) +
+                              " on " + today + " at " + InternshipChangeNotifier.getVersion() +
+                              "/" + UserChangeNotifier.getVersion();
+            // The student's cohort already holds everything but the date window, which the date index answers
+            BitSet eligible = eligibility.eligibleFor(student.getMajor(), student.getYear());
+            clearUnapprovedReps(eligible, reps);
+            if (dateIndex != null) {
+                eligible.and(dateIndex.openOn(today));
+            }
+            for (int id = eligible.nextSetBit(0); id >= 0; id = eligible.nextSetBit(id + 1)) {
+                InternshipOpportunity i = eligibility.get(id);
+                if (dateIndex != null || i.isApplicationOpen()) {
+                    list.add(i);
+                } else {
+                    eligible.clear(id);
+                }
+            }
+            // The filter indexes restrict to these ids directly instead of collecting them from the list again
+            return new InternshipSelection(list, eligible, scopeKey);
+        }
+
         for (CompanyRepresentative r : reps) {
             for (InternshipOpportunity i : r.getInternships()) {
                 if(!r.isApproved()){
                     continue;
                 }
-                if (i.isVisible() && "Approved".equalsIgnoreCase(i.getStatus()) &&
-                    !today.isBefore(i.getOpenDate()) && !today.isAfter(i.getCloseDate()) &&
+                if (i.isVisible() && i.getStatusCode() == InternshipStatus.APPROVED &&
+                    i.isApplicationOpen() &&
                     isMajorMatch(i, student)&&
                     isLevelEligible(i,student)) {
                     list.add(i);
@@ -34,75 +70,58 @@ public class InternshipService {
         return list;
     }
     
+    // Internships of representatives still waiting for approval are not shown to students
+    private void clearUnapprovedReps(BitSet ids, List<CompanyRepresentative> reps) {
+        for (CompanyRepresentative r : reps) {
+            if (r.isApproved()) continue;
+            for (InternshipOpportunity i : r.getInternships()) {
+                ids.clear(i.getId());
+            }
+        }
+    }
+    
     private boolean isMajorMatch(InternshipOpportunity internship, Student student) {
-        String preferredMajor = internship.getPreferredMajor();
-        return preferredMajor == null || preferredMajor.isEmpty() ||
-               preferredMajor.equalsIgnoreCase(student.getMajor());
+        return CohortEligibilityIndex.isMajorMatch(internship, student.getMajor());
     }
     
     private boolean isLevelEligible(InternshipOpportunity internship, Student student) {
-        String level = internship.getLevel();
-        int studentYear = student.getYear();
-    
-        if (level == null) {
-            return true; // If no level specified, assume eligible
-        }
-    
-        // Level eligibility rules:
-        if ("Basic".equalsIgnoreCase(level)) {
-            // Basic level: Open to all years (1-4)
-            return true;
-        } else if ("Intermediate".equalsIgnoreCase(level)) {
-            // Intermediate level: Year 3-4 only
-            return studentYear >= 3;
-        } else if ("Advanced".equalsIgnoreCase(level)) {
-            // Advanced level: Year 4 only
-            return studentYear == 4;
-        }
-    
-        return true;
+        return CohortEligibilityIndex.isLevelEligible(internship, student.getYear());
     }
-    public List<InternshipOpportunity> getAllInternships(List<CompanyRepresentative> reps) {
-        List<InternshipOpportunity> allInternships = new ArrayList<>();
-        for (CompanyRepresentative rep : reps) {
-            allInternships.addAll(rep.getInternships());
-        }
-        return allInternships;
+    // Read-only views straight from the catalog
+    public List<InternshipOpportunity> getAllInternships() {
+        return InternshipCatalog.getAll();
     }
     
-    public List<InternshipOpportunity> getPendingInternships(List<CompanyRepresentative> reps) {
-        List<InternshipOpportunity> pending = new ArrayList<>();
-        for (CompanyRepresentative rep : reps) {
-            for (InternshipOpportunity opp : rep.getInternships()) {
-                if ("Pending".equalsIgnoreCase(opp.getStatus())) {
-                    pending.add(opp);
-                }  
-            }
-        }
-        return pending;
+    public List<InternshipOpportunity> getPendingInternships() {
+        return InternshipCatalog.getByStatus(InternshipStatus.PENDING);
     }
     
-    public List<InternshipOpportunity> getApprovedInternships(List<CompanyRepresentative> reps) {
-        List<InternshipOpportunity> approved = new ArrayList<>();
-        for (CompanyRepresentative rep : reps) {
-            for (InternshipOpportunity opp : rep.getInternships()) {
-                if ("Approved".equalsIgnoreCase(opp.getStatus())) {
-                    approved.add(opp);
-                }
-            }
-        }
-        return approved;
+    public List<InternshipOpportunity> getApprovedInternships() {
+        return InternshipCatalog.getByStatus(InternshipStatus.APPROVED);
     }
     
-    public InternshipOpportunity findInternshipByTitle(List<CompanyRepresentative> reps, String title) {
-        for (CompanyRepresentative rep : reps) {
-            for (InternshipOpportunity opp : rep.getInternships()) {
-                if (opp.getTitle().equalsIgnoreCase(title)) {
-                    return opp;  
-                }
-            }
+    // All internships with the title, ignoring case; more than one means the company is needed to tell them apart
+    public List<InternshipOpportunity> findInternshipsByTitle(String title) {
+        return InternshipCatalog.findByTitle(title);
+    }
+
+    // The internship with this title, or null when there is none or the title is used by more than one company
+    public InternshipOpportunity findInternshipByTitle(String title) {
+        List<InternshipOpportunity> matches = InternshipCatalog.findByTitle(title);
+        if (matches.size() > 1) {
+            System.out.println("More than one internship is titled '" + title + "'. Please specify the company.");
+            return null;
+        }
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    public InternshipOpportunity findInternshipByTitle(String company, String title) {
+        List<InternshipOpportunity> matches = InternshipCatalog.findByCompanyAndTitle(company, title);
+        if (matches.size() > 1) {
+            System.out.println("More than one internship at " + company + " is titled '" + title + "'.");
+            return null;
         }
-        return null;
+        return matches.isEmpty() ? null : matches.get(0);
     }
 
 }
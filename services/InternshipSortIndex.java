@@ -0,0 +1,181 @@
+package services;
+
+import models.InternshipOpportunity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+/**
+ * This is to keep every internship in a sorted view per sort key, so filtered results can be read off
+ * in order instead of being sorted on every call. Each key has an ascending and a descending view; in both,
+ * internships with equal keys come in id order, the same tie order InternshipFilterServiceImpl uses
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class InternshipSortIndex {
+    public static final String[] SORT_KEYS = { "title", "company", "closingdate", "level", "status", "preferredmajor" };
+
+    private static final Comparator<SortEntry> DESCENDING = (a, b) -> {
+        int c = compareKeys(b.key, a.key);
+        return c != 0 ? c : Integer.compare(a.opp.getId(), b.opp.getId());
+    };
+
+    private final Map<String, NavigableSet<SortEntry>> views = new HashMap<>();
+    private final Map<String, NavigableSet<SortEntry>> descendingViews = new HashMap<>();
+    private final Map<Integer, SortEntry[]> entriesById = new HashMap<>();
+
+    public InternshipSortIndex() {
+        for (String key : SORT_KEYS) {
+            views.put(key, new TreeSet<>());
+            descendingViews.put(key, new TreeSet<>(DESCENDING));
+        }
+    }
+
+    // Unknown sort keys fall back to title, the same as InternshipFilterServiceImpl.getComparator
+    public static String resolveKey(String sortBy) {
+        if (sortBy != null) {
+            String key = sortBy.toLowerCase();
+            for (String known : SORT_KEYS) {
+                if (known.equals(key)) return known;
+            }
+        }
+        return "title";
+    }
+
+    public synchronized void add(InternshipOpportunity opp) {
+        if (entriesById.containsKey(opp.getId())) {
+            update(opp);
+            return;
+        }
+        SortEntry[] entries = new SortEntry[SORT_KEYS.length];
+        for (int k = 0; k < SORT_KEYS.length; k++) {
+            entries[k] = new SortEntry(keyOf(opp, SORT_KEYS[k]), opp);
+            views.get(SORT_KEYS[k]).add(entries[k]);
+            descendingViews.get(SORT_KEYS[k]).add(entries[k]);
+        }
+        entriesById.put(opp.getId(), entries);
+    }
+
+    public synchronized void update(InternshipOpportunity opp) {
+        SortEntry[] entries = entriesById.get(opp.getId());
+        if (entries == null) return; // only internships it was told about
+        for (int k = 0; k < SORT_KEYS.length; k++) {
+            Comparable<Object> key = keyOf(opp, SORT_KEYS[k]);
+            if (compareKeys(entries[k].key, key) == 0) continue;
+
+            NavigableSet<SortEntry> view = views.get(SORT_KEYS[k]);
+            NavigableSet<SortEntry> descending = descendingViews.get(SORT_KEYS[k]);
+            view.remove(entries[k]);
+            descending.remove(entries[k]);
+            entries[k] = new SortEntry(key, opp);
+            view.add(entries[k]);
+            descending.add(entries[k]);
+        }
+    }
+
+    public synchronized void remove(InternshipOpportunity opp) {
+        SortEntry[] entries = entriesById.remove(opp.getId());
+        if (entries == null) return;
+        for (int k = 0; k < SORT_KEYS.length; k++) {
+            views.get(SORT_KEYS[k]).remove(entries[k]);
+            descendingViews.get(SORT_KEYS[k]).remove(entries[k]);
+        }
+    }
+
+    // Walks the view for sortBy in the requested direction and returns the internships whose id is in matches
+    public synchronized List<InternshipOpportunity> collect(String sortBy, boolean ascending, BitSet matches) {
+        int remaining = matches.cardinality();
+        List<InternshipOpportunity> result = new ArrayList<>(remaining);
+
+        Iterator<SortEntry> it = viewFor(resolveKey(sortBy), ascending).iterator();
+        while (remaining > 0 && it.hasNext()) {
+            SortEntry entry = it.next();
+            if (matches.get(entry.opp.getId())) {
+                result.add(entry.opp);
+                remaining--;
+            }
+        }
+        return result;
+    }
+
+    // Up to limit matches that come after afterId in the view; when afterId is no longer indexed the first
+    // 'skip' matches are passed over instead
+    public synchronized List<InternshipOpportunity> page(String sortBy, boolean ascending, BitSet matches,
+                                                         int afterId, int skip, int limit) {
+        int k = Arrays.asList(SORT_KEYS).indexOf(resolveKey(sortBy));
+        NavigableSet<SortEntry> view = viewFor(SORT_KEYS[k], ascending);
+        SortEntry[] after = afterId >= 0 ? entriesById.get(afterId) : null;
+
+        Iterator<SortEntry> it;
+        if (after != null) {
+            it = view.tailSet(after[k], false).iterator();
+            skip = 0;
+        } else {
+            it = view.iterator();
+        }
+
+        List<InternshipOpportunity> result = new ArrayList<>();
+        while (result.size() < limit && it.hasNext()) {
+            SortEntry entry = it.next();
+            if (!matches.get(entry.opp.getId())) continue;
+            if (skip > 0) {
+                skip--;
+            } else {
+                result.add(entry.opp);
+            }
+        }
+        return result;
+    }
+
+    private NavigableSet<SortEntry> viewFor(String key, boolean ascending) {
+        return ascending ? views.get(key) : descendingViews.get(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> keyOf(InternshipOpportunity opp, String sortKey) {
+        switch (sortKey) {
+            case "company":
+                return (Comparable<Object>) (Comparable<?>) opp.getCompany();
+            case "closingdate":
+                return (Comparable<Object>) (Comparable<?>) opp.getCloseDate();
+            case "level":
+                return (Comparable<Object>) (Comparable<?>) opp.getLevel();
+            case "status":
+                return (Comparable<Object>) (Comparable<?>) opp.getStatus();
+            case "preferredmajor":
+                return (Comparable<Object>) (Comparable<?>) opp.getPreferredMajor();
+            case "title":
+            default:
+                return (Comparable<Object>) (Comparable<?>) opp.getTitle();
+        }
+    }
+
+    private static int compareKeys(Comparable<Object> a, Comparable<Object> b) {
+        if (a == null) return b == null ? 0 : -1;
+        if (b == null) return 1;
+        return a.compareTo(b);
+    }
+
+    // The key is captured when the entry is made, so the entry can still be found after the internship is edited
+    private static final class SortEntry implements Comparable<SortEntry> {
+        private final Comparable<Object> key;
+        private final InternshipOpportunity opp;
+
+        private SortEntry(Comparable<Object> key, InternshipOpportunity opp) {
+            this.key = key;
+            this.opp = opp;
+        }
+
+        @Override
+        public int compareTo(SortEntry other) {
+            int c = compareKeys(key, other.key);
+            return c != 0 ? c : Integer.compare(opp.getId(), other.opp.getId());
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.util.List;
  * @version 1.0
  */
 public class InternshipViewerService {
+    private static final int PAGE_SIZE = 20;
     private final InternshipFilterService filterService;
     
     public InternshipViewerService(InternshipFilterService filterService) {
@@ -21,21 +22,34 @@ public class InternshipViewerService {
     public void viewInternshipsWithFilter(List<InternshipOpportunity> internships, 
                                         InternshipFilter filter,
                                         String viewerType) {
-        List<InternshipOpportunity> filtered = filterService.filterInternships(internships, filter);
+        // Each page is asked for with the token of the one before, so it shows up without waiting for the rest
+        InternshipPage page = filterService.filterInternshipsPage(internships, filter, PAGE_SIZE, null);
         
         System.out.println("\n=== Available Internships (" + viewerType + " View) ===");
         System.out.println("Active Filters: " + (filter.hasActiveFilters() ? "Yes" : "No"));
         System.out.println("Sort By: " + filter.getSortBy() + " (" + 
                           (filter.isSortAscending() ? "Ascending" : "Descending") + ")");
-        System.out.println("Results: " + filtered.size() + " internships found\n");
+        boolean counted = page.hasTotal();
+        if (counted) {
+            System.out.println("Results: " + page.getTotalMatches() + " internships found\n");
+        }
         
-        if (filtered.isEmpty()) {
+        if (page.getItems().isEmpty()) {
             System.out.println("No internships match your current filters.");
             return;
         }
         
-        for (InternshipOpportunity i : filtered) {
-            displayInternshipForViewer(i, viewerType);
+        int shown = 0;
+        while (true) {
+            for (InternshipOpportunity i : page.getItems()) {
+                displayInternshipForViewer(i, viewerType);
+            }
+            shown += page.getItems().size();
+            if (!page.hasMore()) break;
+            page = filterService.filterInternshipsPage(internships, filter, PAGE_SIZE, page.getContinuationToken());
+        }
+        if (!counted) {
+            System.out.println("\nResults: " + shown + " internships found");
         }
     }
     
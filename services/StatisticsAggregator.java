@@ -0,0 +1,241 @@
+package services;
+
+import interfaces.ApplicationChangeListener;
+import interfaces.InternshipChangeListener;
+import models.ApplicationStatus;
+import models.CompanyRepresentative;
+import models.InternshipApplication;
+import models.InternshipOpportunity;
+import models.InternshipStatus;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+/**
+ * This is the running totals behind the staff and system statistics screens: internships by status, visibility,
+ * company and representative, applications by status, and representatives by approval. The totals are moved
+ * as things change, so reading them never walks the catalog and can happen while other threads are writing.
+ * Applications are only counted while their internship is in the catalog
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class StatisticsAggregator {
+    private static final int STATUSES = InternshipStatus.values().length;
+
+    private static final LongAdder internships = new LongAdder();
+    private static final LongAdder[] byStatus = counters(STATUSES);
+    private static final LongAdder[] visibleByStatus = counters(STATUSES);
+    private static final Map<String, LongAdder[]> byCompany = new ConcurrentHashMap<>();
+    private static final Map<String, String> companyNames = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder[]> byRepresentative = new ConcurrentHashMap<>();
+    private static final LongAdder[] applicationsByStatus = counters(ApplicationStatus.values().length);
+    private static final LongAdder representatives = new LongAdder();
+    private static final LongAdder approvedRepresentatives = new LongAdder();
+
+    // What each internship was last counted under, so a change moves it from the right totals
+    private static final Map<Integer, Counted> counted = new ConcurrentHashMap<>();
+
+    static {
+        InternshipChangeNotifier.addListener(new InternshipChangeListener() {
+            @Override
+            public void internshipAdded(InternshipOpportunity opp) {
+                recount(opp);
+            }
+
+            @Override
+            public void internshipChanged(InternshipOpportunity opp) {
+                if (counted.containsKey(opp.getId())) {
+                    recount(opp);
+                }
+            }
+
+            @Override
+            public void internshipRemoved(InternshipOpportunity opp) {
+                counted.computeIfPresent(opp.getId(), (id, previous) -> {
+                    previous.apply(-1);
+                    internships.decrement();
+                    addApplications(opp, -1);
+                    return null;
+                });
+            }
+        });
+        ApplicationChangeNotifier.addListener(new ApplicationChangeListener() {
+            @Override
+            public void applicationAdded(InternshipApplication app) {
+                if (counted.containsKey(app.getInternship().getId())) {
+                    applicationsByStatus[app.getStatusCode().ordinal()].increment();
+                }
+            }
+
+            @Override
+            public void applicationStatusChanged(InternshipApplication app, ApplicationStatus from, ApplicationStatus to) {
+                if (counted.containsKey(app.getInternship().getId())) {
+                    applicationsByStatus[from.ordinal()].decrement();
+                    applicationsByStatus[to.ordinal()].increment();
+                }
+            }
+
+            // The internship still holds the application, so it stays counted
+            @Override
+            public void applicationRemoved(InternshipApplication app) {
+            }
+        });
+        // Anything created before this class was first used
+        for (InternshipOpportunity opp : new ArrayList<>(InternshipCatalog.getAll())) {
+            recount(opp);
+        }
+    }
+
+    // ===== Internships =====
+    public static long countInternships() {
+        return internships.sum();
+    }
+
+    public static long countInternships(InternshipStatus status) {
+        return byStatus[status.ordinal()].sum();
+    }
+
+    public static long countVisible(InternshipStatus status) {
+        return visibleByStatus[status.ordinal()].sum();
+    }
+
+    public static long countForCompany(String company, InternshipStatus status) {
+        LongAdder[] counts = byCompany.get(key(company));
+        return counts == null ? 0 : counts[status.ordinal()].sum();
+    }
+
+    public static long countForRepresentative(String repId, InternshipStatus status) {
+        LongAdder[] counts = byRepresentative.get(repId);
+        return counts == null ? 0 : counts[status.ordinal()].sum();
+    }
+
+    // Internships per company, by company name
+    public static Map<String, Long> getCompanyTotals() {
+        Map<String, Long> totals = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, LongAdder[]> e : byCompany.entrySet()) {
+            long total = 0;
+            for (LongAdder count : e.getValue()) {
+                total += count.sum();
+            }
+            if (total > 0) {
+                totals.put(companyNames.getOrDefault(e.getKey(), e.getKey()), total);
+            }
+        }
+        return totals;
+    }
+
+    // ===== Applications =====
+    public static long countApplications(ApplicationStatus status) {
+        return applicationsByStatus[status.ordinal()].sum();
+    }
+
+    public static long countApplications() {
+        long total = 0;
+        for (LongAdder count : applicationsByStatus) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    // ===== Company representatives =====
+    public static long countRepresentatives() {
+        return representatives.sum();
+    }
+
+    public static long countApprovedRepresentatives() {
+        return approvedRepresentatives.sum();
+    }
+
+    public static long countPendingRepresentatives() {
+        return representatives.sum() - approvedRepresentatives.sum();
+    }
+
+    // Called by CompanyRepresentative on registration and whenever its approval actually changes
+    public static void representativeRegistered(CompanyRepresentative rep) {
+        representatives.increment();
+        if (rep.isApproved()) {
+            approvedRepresentatives.increment();
+        }
+    }
+
+    public static void representativeApprovalChanged(boolean approved) {
+        if (approved) {
+            approvedRepresentatives.increment();
+        } else {
+            approvedRepresentatives.decrement();
+        }
+    }
+
+    private static void recount(InternshipOpportunity opp) {
+        CompanyRepresentative rep = InternshipCatalog.getRepresentative(opp);
+        if (rep == null) return; // not in the catalog (yet)
+
+        Counted now = new Counted(opp.getStatusCode(), opp.isVisible(),
+                                  company(opp.getCompany()), representative(rep.getUserID()));
+        counted.compute(opp.getId(), (id, previous) -> {
+            if (previous == null) {
+                internships.increment();
+                // Applications made before the internship joined the catalog are counted from now on
+                addApplications(opp, 1);
+            } else {
+                previous.apply(-1);
+            }
+            now.apply(1);
+            return now;
+        });
+    }
+
+    private static void addApplications(InternshipOpportunity opp, int sign) {
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            applicationsByStatus[status.ordinal()].add(sign * opp.getApplicationCount(status));
+        }
+    }
+
+    private static LongAdder[] company(String company) {
+        String key = key(company);
+        companyNames.putIfAbsent(key, company == null ? "" : company);
+        return byCompany.computeIfAbsent(key, k -> counters(STATUSES));
+    }
+
+    private static LongAdder[] representative(String repId) {
+        return byRepresentative.computeIfAbsent(repId, k -> counters(STATUSES));
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static LongAdder[] counters(int size) {
+        LongAdder[] counters = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    private static final class Counted {
+        private final InternshipStatus status;
+        private final boolean visible;
+        private final LongAdder[] company;
+        private final LongAdder[] representative;
+
+        private Counted(InternshipStatus status, boolean visible, LongAdder[] company, LongAdder[] representative) {
+            this.status = status;
+            this.visible = visible;
+            this.company = company;
+            this.representative = representative;
+        }
+
+        private void apply(int delta) {
+            int i = status.ordinal();
+            byStatus[i].add(delta);
+            company[i].add(delta);
+            representative[i].add(delta);
+            if (visible) {
+                visibleByStatus[i].add(delta);
+            }
+        }
+    }
+}
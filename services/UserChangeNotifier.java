@@ -0,0 +1,53 @@
+package services;
+
+import interfaces.UserChangeListener;
+import models.CompanyRepresentative;
+import models.User;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * This is to pass changes to users on to whatever keeps a record of them
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class UserChangeNotifier {
+    private static final List<UserChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private static final AtomicLong version = new AtomicLong();
+
+    public static void addListener(UserChangeListener listener) {
+        if (listener != null && !listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    public static void removeListener(UserChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Bumped on every user change, so anything that depends on which representatives are approved can tell it is stale
+    public static long getVersion() {
+        return version.get();
+    }
+
+    public static void fireRepresentativeRegistered(CompanyRepresentative rep) {
+        version.incrementAndGet();
+        for (UserChangeListener l : listeners) {
+            l.representativeRegistered(rep);
+        }
+    }
+
+    public static void fireRepresentativeApprovalChanged(CompanyRepresentative rep) {
+        version.incrementAndGet();
+        for (UserChangeListener l : listeners) {
+            l.representativeApprovalChanged(rep);
+        }
+    }
+
+    public static void firePasswordChanged(User user) {
+        version.incrementAndGet();
+        for (UserChangeListener l : listeners) {
+            l.passwordChanged(user);
+        }
+    }
+}
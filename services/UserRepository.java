@@ -0,0 +1,35 @@
+package services;
+
+import interfaces.UserDirectory;
+import models.User;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+/**
+ * This is a directory of users filled one at a time as they are read, such as straight from a CSV file
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class UserRepository<T extends User> implements UserDirectory<T> {
+    private final List<T> users = new ArrayList<>();
+    private final List<T> view = Collections.unmodifiableList(users);
+    private final Map<String, T> byId = new HashMap<>();
+
+    // Meant to be passed as the loader's sink; fill it before anything else looks at it
+    public void add(T user) {
+        users.add(user);
+        byId.putIfAbsent(user.getUserID(), user); // the first one wins, as a search through the list would
+    }
+
+    @Override
+    public T findById(String userID) {
+        return byId.get(userID);
+    }
+
+    @Override
+    public List<T> getAll() {
+        return view;
+    }
+}
@@ -0,0 +1,59 @@
+package services;
+
+import models.InternshipApplication;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+/**
+ * This is the queue of withdrawal requests waiting for staff, oldest first, shared by the whole system
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class WithdrawalQueue {
+    // Insertion order is request order, and a request can still be taken out from the middle in O(1)
+    private static final LinkedHashSet<InternshipApplication> requests = new LinkedHashSet<>();
+
+    public static synchronized void push(InternshipApplication app) {
+        requests.add(app);
+    }
+
+    // Takes out and returns the oldest request, or null when there is none
+    public static synchronized InternshipApplication pollOldest() {
+        Iterator<InternshipApplication> it = requests.iterator();
+        if (!it.hasNext()) return null;
+        InternshipApplication oldest = it.next();
+        it.remove();
+        return oldest;
+    }
+
+    public static synchronized boolean remove(InternshipApplication app) {
+        return requests.remove(app);
+    }
+
+    public static synchronized boolean contains(InternshipApplication app) {
+        return requests.contains(app);
+    }
+
+    public static synchronized int size() {
+        return requests.size();
+    }
+
+    public static synchronized boolean isEmpty() {
+        return requests.isEmpty();
+    }
+
+    // Copy of up to limit requests, oldest first
+    public static synchronized List<InternshipApplication> peekOldest(int limit) {
+        List<InternshipApplication> oldest = new ArrayList<>(Math.min(limit, requests.size()));
+        for (InternshipApplication app : requests) {
+            if (oldest.size() >= limit) break;
+            oldest.add(app);
+        }
+        return oldest;
+    }
+
+    public static synchronized void clear() {
+        requests.clear();
+    }
+}
@@ -0,0 +1,129 @@
+package stress;
+
+import models.ApplicationStatus;
+import models.InternshipApplication;
+import models.InternshipOpportunity;
+import models.InternshipStatus;
+import models.Student;
+import services.ApplicationService;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ * This is to check that accepting offers from many threads at once never hands out more slots than an
+ * internship has. Every round, more students than slots accept an offer for the same internship at the
+ * same moment through ApplicationService, and some of them withdraw again, while all of them apply for
+ * a second internship. Run it with: java stress.SlotReservationStress [rounds] [threads]
+ * @author Dai Jiayu
+ * @version 1.0
+ */
+public class SlotReservationStress {
+    private static final int STUDENTS_PER_ROUND = 64;
+
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        // The services print a line for every application and acceptance
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        int failures = 0;
+        try {
+            for (int round = 0; round < rounds; round++) {
+                if (!runRound(pool, 1 + round % 10, console)) {
+                    failures++;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            System.setOut(console);
+        }
+
+        if (failures > 0) {
+            System.out.println("FAILED: " + failures + " of " + rounds + " round(s) lost track of applications or slots.");
+            System.exit(1);
+        }
+        System.out.println("OK: " + rounds + " round(s), no internship took more acceptances than slots or lost an application.");
+    }
+
+    // Returns false if the internship ended up with more accepted applications than slots, or if the
+    // second internship lost any of the applications made to it
+    private static boolean runRound(ExecutorService pool, int slots, PrintStream console) throws Exception {
+        LocalDate today = LocalDate.now();
+        InternshipOpportunity opp = new InternshipOpportunity("Hot", "Stress test", "Basic", "CS",
+                                                              today, today, slots, "Stress");
+        InternshipOpportunity open = new InternshipOpportunity("Open", "Stress test", "Basic", "CS",
+                                                               today, today, STUDENTS_PER_ROUND, "Stress");
+        open.setStatus(InternshipStatus.APPROVED);
+        open.setVisible(true);
+        List<InternshipApplication> apps = new ArrayList<>();
+        for (int i = 0; i < STUDENTS_PER_ROUND; i++) {
+            Student student = new Student("S" + i, "Student " + i, 1, "CS", "s" + i + "@example.com", null);
+            InternshipApplication app = new InternshipApplication(student, opp);
+            student.getAppliedInternships().add(app);
+            opp.addApplication(app);
+            app.setStatus(ApplicationStatus.OFFERED);
+            apps.add(app);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger withdrawn = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (InternshipApplication app : apps) {
+            futures.add(pool.submit(() -> {
+                ApplicationService service = new ApplicationService(app.getStudent());
+                boolean applyFirst = ThreadLocalRandom.current().nextBoolean();
+                start.await();
+                if (applyFirst) {
+                    service.applyForInternship(open);
+                }
+                service.acceptInternship(app);
+                // Only this task changes this application, so its status tells whether the accept went through
+                if (app.getStatusCode() == ApplicationStatus.ACCEPTED) {
+                    accepted.incrementAndGet();
+                    // Some students change their minds, which gives the slot back to the others
+                    if (ThreadLocalRandom.current().nextInt(8) == 0) {
+                        app.setStatus(ApplicationStatus.WITHDRAWAL_REQUESTED);
+                        app.setStatus(ApplicationStatus.WITHDRAWN);
+                        withdrawn.incrementAndGet();
+                    }
+                }
+                if (!applyFirst) {
+                    service.applyForInternship(open);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        int holding = opp.getAcceptedCount();
+        boolean ok = holding <= slots
+                && holding == accepted.get() - withdrawn.get()
+                && opp.checkApplicationCounts();
+        if (!ok) {
+            console.println("Over-allocated: " + holding + " accepted for " + slots + " slot(s), " +
+                            accepted.get() + " accepts and " + withdrawn.get() + " withdrawals seen.");
+        }
+        int applied = open.getApplications().size();
+        if (applied != STUDENTS_PER_ROUND || open.getPendingCount() != STUDENTS_PER_ROUND
+                || !open.checkApplicationCounts()) {
+            console.println("Lost applications: " + applied + " of " + STUDENTS_PER_ROUND + " kept, " +
+                            open.getPendingCount() + " counted as pending.");
+            ok = false;
+        }
+        return ok;
+    }
+}